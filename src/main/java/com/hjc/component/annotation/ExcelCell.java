@@ -4,6 +4,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.math.RoundingMode;
 
 /**
  * @author by hjc
@@ -33,9 +34,18 @@ public @interface ExcelCell {
     //正则
     String pattern() default "";
 
+    //命名校验器，见CellValidators
+    String validator() default "";
+
     //批注信息
     String comment() default "";
 
     //字段长度
     int length() default 0;
+
+    //小数位数，小于0时使用处理器默认值（Double为6位，其余不舍入）
+    int scale() default -1;
+
+    //小数舍入方式
+    RoundingMode rounding() default RoundingMode.DOWN;
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.hjc.component.binding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * @author by hjc
+ * @Classname Accessors
+ * @Description 通过LambdaMetafactory生成构造器及getter/setter调用，无法生成时回退到反射
+ * @Date 2019/7/9 21:36
+ */
+@Slf4j
+public final class Accessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Accessors() {
+    }
+
+    /**
+     * 构建属性读写器
+     *
+     * @param field 属性（已setAccessible）
+     * @return 读写器
+     */
+    public static FieldAccessor of(Field field) {
+        Function<Object, Object> getter = null;
+        BiConsumer<Object, Object> setter = null;
+        Object primitiveSetter = null;
+        Class<?> owner = field.getDeclaringClass();
+        if (isLinkable(owner)) {
+            String suffix = StringUtils.capitalize(field.getName());
+            Method readMethod = findMethod(owner, "get" + suffix);
+            if (readMethod == null && field.getType() == boolean.class) {
+                readMethod = findMethod(owner, "is" + suffix);
+            }
+            if (readMethod != null && readMethod.getReturnType() == field.getType()) {
+                getter = generateGetter(readMethod);
+            }
+            Method writeMethod = findMethod(owner, "set" + suffix, field.getType());
+            if (writeMethod != null) {
+                setter = generateSetter(writeMethod);
+                primitiveSetter = generatePrimitiveSetter(writeMethod);
+            }
+        }
+        return new GeneratedFieldAccessor(field, getter, setter, primitiveSetter);
+    }
+
+    /**
+     * 构建无参构造器
+     *
+     * @param type 目标类
+     * @return 构造器，类没有无参构造器时为null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> constructor(Class<T> type) {
+        Constructor<T> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (isLinkable(type) && Modifier.isPublic(constructor.getModifiers())) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle, handle.type());
+                return (Supplier<T>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                log.debug("生成构造器失败，回退到反射：{}", type.getName(), e);
+            }
+        }
+        constructor.setAccessible(true);
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("创建实例失败：" + type.getName(), e);
+            }
+        };
+    }
+
+    /**
+     * 类为public且能从本组件的类加载器解析时，才生成lambda调用
+     */
+    static boolean isLinkable(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, Accessors.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    static Method findMethod(Class<?> owner, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = owner.getMethod(name, parameterTypes);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> generateGetter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle, handle.type());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.debug("生成getter失败，回退到反射：{}", method, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> generateSetter(Method method) {
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle, handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            log.debug("生成setter失败，回退到反射：{}", method, e);
+            return null;
+        }
+    }
+
+    /**
+     * 为int、long、double、boolean属性的setter生成不装箱的调用
+     *
+     * @return ObjIntConsumer、ObjLongConsumer、ObjDoubleConsumer或ObjBooleanConsumer，其他类型或生成失败时为null
+     */
+    private static Object generatePrimitiveSetter(Method method) {
+        Class<?> type = method.getParameterTypes()[0];
+        Class<?> consumerType;
+        if (type == int.class) {
+            consumerType = ObjIntConsumer.class;
+        } else if (type == long.class) {
+            consumerType = ObjLongConsumer.class;
+        } else if (type == double.class) {
+            consumerType = ObjDoubleConsumer.class;
+        } else if (type == boolean.class) {
+            consumerType = ObjBooleanConsumer.class;
+        } else {
+            return null;
+        }
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(consumerType),
+                    MethodType.methodType(void.class, Object.class, type),
+                    handle, handle.type().changeReturnType(void.class));
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            log.debug("生成基本类型setter失败，回退到反射：{}", method, e);
+            return null;
+        }
+    }
+
+    /**
+     * boolean版本的ObjIntConsumer，JDK未提供
+     */
+    @FunctionalInterface
+    interface ObjBooleanConsumer {
+
+        void accept(Object target, boolean value);
+    }
+
+    /**
+     * 优先使用生成的getter/setter，缺失的一侧回退到反射
+     */
+    private static final class GeneratedFieldAccessor implements FieldAccessor {
+
+        private final Field field;
+
+        private final Function<Object, Object> getter;
+
+        private final BiConsumer<Object, Object> setter;
+
+        /**
+         * 与属性类型对应的不装箱setter，可为null
+         */
+        private final Object primitiveSetter;
+
+        private final Class<?> type;
+
+        private final boolean primitive;
+
+        GeneratedFieldAccessor(Field field, Function<Object, Object> getter, BiConsumer<Object, Object> setter, Object primitiveSetter) {
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+            this.primitiveSetter = primitiveSetter;
+            this.type = field.getType();
+            this.primitive = type.isPrimitive();
+        }
+
+        @Override
+        public Object get(Object target) {
+            if (getter != null) {
+                return getter.apply(target);
+            }
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("读取属性失败：" + field.getName(), e);
+            }
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            //基本类型不接受null，保留默认值
+            if (value == null && primitive) {
+                return;
+            }
+            if (setter != null) {
+                setter.accept(target, value);
+                return;
+            }
+            try {
+                field.set(target, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("写入属性失败：" + field.getName(), e);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void setInt(Object target, int value) {
+            if (type != int.class) {
+                set(target, value);
+            } else if (primitiveSetter != null) {
+                ((ObjIntConsumer<Object>) primitiveSetter).accept(target, value);
+            } else {
+                try {
+                    field.setInt(target, value);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("写入属性失败：" + field.getName(), e);
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void setLong(Object target, long value) {
+            if (type != long.class) {
+                set(target, value);
+            } else if (primitiveSetter != null) {
+                ((ObjLongConsumer<Object>) primitiveSetter).accept(target, value);
+            } else {
+                try {
+                    field.setLong(target, value);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("写入属性失败：" + field.getName(), e);
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void setDouble(Object target, double value) {
+            if (type != double.class) {
+                set(target, value);
+            } else if (primitiveSetter != null) {
+                ((ObjDoubleConsumer<Object>) primitiveSetter).accept(target, value);
+            } else {
+                try {
+                    field.setDouble(target, value);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("写入属性失败：" + field.getName(), e);
+                }
+            }
+        }
+
+        @Override
+        public void setBoolean(Object target, boolean value) {
+            if (type != boolean.class) {
+                set(target, value);
+            } else if (primitiveSetter != null) {
+                ((ObjBooleanConsumer) primitiveSetter).accept(target, value);
+            } else {
+                try {
+                    field.setBoolean(target, value);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("写入属性失败：" + field.getName(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hjc.component.binding;
+
+/**
+ * @author by hjc
+ * @Classname CellValidator
+ * @Description 单元格校验器，可通过{@link CellValidators#register}按名称注册，在@ExcelCell的validator中引用
+ * @Date 2019/7/9 21:36
+ */
+@FunctionalInterface
+public interface CellValidator {
+
+    /**
+     * 校验单元格值
+     *
+     * @param value 单元格值，已去掉首尾空白，不为null
+     * @return 错误信息，校验通过时为null
+     */
+    String validate(String value);
+}
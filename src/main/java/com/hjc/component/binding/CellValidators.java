@@ -0,0 +1,112 @@
+package com.hjc.component.binding;
+
+import com.google.common.collect.ImmutableMap;
+import com.hjc.component.annotation.ExcelCell;
+import com.hjc.component.util.PatternUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * @author by hjc
+ * @Classname CellValidators
+ * @Description 单元格校验器注册表，并将@ExcelCell的约束编译为校验链
+ * @Date 2019/7/9 21:36
+ */
+public final class CellValidators {
+
+    private static final ConcurrentMap<String, CellValidator> VALIDATORS = new ConcurrentHashMap<>();
+
+    /**
+     * 早期版本按属性名选择的校验器，未配置validator时沿用
+     */
+    private static final Map<String, String> LEGACY_FIELD_VALIDATORS = ImmutableMap.of(
+            "longitude", "longitude",
+            "latitude", "latitude",
+            "angle", "angle",
+            "maxSpeed", "speed",
+            "minSpeed", "speed");
+
+    static {
+        register("longitude", matches(PatternUtil.PATTERN_LONGITUDE, "经度不合法"));
+        register("latitude", matches(PatternUtil.PATTERN_LATITUDE, "纬度不合法"));
+        register("angle", matches(PatternUtil.PATTERN_ANGLE, "角度不合法"));
+        register("speed", matches(PatternUtil.PATTERN_SPEED, "速度不合法"));
+    }
+
+    private CellValidators() {
+    }
+
+    /**
+     * 注册命名校验器，已存在时覆盖；须在对应类首次导入导出前注册
+     *
+     * @param name      名称
+     * @param validator 校验器
+     */
+    public static void register(String name, CellValidator validator) {
+        VALIDATORS.put(name, validator);
+    }
+
+    /**
+     * 正则校验器
+     *
+     * @param pattern 预编译正则
+     * @param message 不匹配时的错误信息
+     */
+    public static CellValidator matches(Pattern pattern, String message) {
+        return value -> pattern.matcher(value).matches() ? null : message;
+    }
+
+    /**
+     * 将列约束编译为校验链，依次为非空、格式、长度、边界值
+     *
+     * @param fieldName       属性名
+     * @param ant             列注解
+     * @param compiledPattern 预编译正则，未配置时为null
+     */
+    static CellValidator[] compile(String fieldName, ExcelCell ant, Pattern compiledPattern) {
+        List<CellValidator> chain = new ArrayList<>();
+        if (ant.notNull()) {
+            //非空校验
+            chain.add(value -> StringUtils.isBlank(value) ? "不能为空" : null);
+        }
+        if (StringUtils.isNotBlank(ant.validator())) {
+            //命名校验器，空值交给非空校验
+            CellValidator named = lookup(ant.validator());
+            chain.add(value -> StringUtils.isBlank(value) ? null : named.validate(value));
+        } else if (ant.notNull() && compiledPattern != null) {
+            //正则校验
+            String message = "格式不合法：" + ant.pattern();
+            String legacy = LEGACY_FIELD_VALIDATORS.get(fieldName);
+            CellValidator check = legacy != null ? lookup(legacy) : matches(compiledPattern, message);
+            chain.add(value -> check.validate(value) == null ? null : message);
+        }
+        int length = ant.length();
+        if (length > 0) {
+            //长度校验
+            chain.add(value -> value.length() > length ? "长度不合法：" + value : null);
+        }
+        if (ant.enums().length > 0) {
+            //边界值校验
+            Set<String> enums = new HashSet<>(Arrays.asList(ant.enums()));
+            chain.add(value -> StringUtils.isBlank(value) || enums.contains(value) ? null : "边界值不合法：" + value);
+        }
+        return chain.toArray(new CellValidator[0]);
+    }
+
+    private static CellValidator lookup(String name) {
+        CellValidator validator = VALIDATORS.get(name);
+        if (validator == null) {
+            throw new IllegalStateException("未注册的校验器：" + name);
+        }
+        return validator;
+    }
+}
@@ -0,0 +1,148 @@
+package com.hjc.component.binding;
+
+import com.hjc.component.annotation.ExcelCell;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname ExcelClassMapping
+ * @Description 类级绑定元数据，每个类只解析一次注解并缓存，导入导出共用
+ * @Date 2019/7/9 21:36
+ */
+@Getter
+public final class ExcelClassMapping {
+
+    private static final ClassValue<ExcelClassMapping> CACHE = new ClassValue<ExcelClassMapping>() {
+        @Override
+        protected ExcelClassMapping computeValue(Class<?> type) {
+            return new ExcelClassMapping(type);
+        }
+    };
+
+    /**
+     * 目标类
+     */
+    private final Class<?> type;
+
+    /**
+     * 按order升序排列的列
+     */
+    private final List<ExcelColumnMapping> columns;
+
+    /**
+     * 按order升序排列的标题
+     */
+    private final List<String> titles;
+
+    /**
+     * 【标题->列】映射
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<String, ExcelColumnMapping> titleColumns;
+
+    /**
+     * 【order->列】映射，下标即order
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final ExcelColumnMapping[] orderColumns;
+
+    /**
+     * 行实例工厂
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final RecordFactory<?> factory;
+
+    private ExcelClassMapping(Class<?> type) {
+        this.type = type;
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(ExcelCell.class)) {
+                fields.add(field);
+            }
+        }
+        fields.sort(Comparator.comparingInt(f -> f.getAnnotation(ExcelCell.class).order()));
+        List<ExcelColumnMapping> list = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            list.add(new ExcelColumnMapping(field, field.getAnnotation(ExcelCell.class), list.size()));
+        }
+
+        List<String> titleList = new ArrayList<>(list.size());
+        Map<String, ExcelColumnMapping> titleMap = new HashMap<>(list.size() * 2);
+        int maxOrder = -1;
+        for (ExcelColumnMapping column : list) {
+            titleList.add(column.getTitle());
+            titleMap.put(column.getTitle(), column);
+            maxOrder = Math.max(maxOrder, column.getOrder());
+        }
+        ExcelColumnMapping[] byOrder = new ExcelColumnMapping[maxOrder + 1];
+        for (ExcelColumnMapping column : list) {
+            if (column.getOrder() >= 0) {
+                byOrder[column.getOrder()] = column;
+            }
+        }
+        this.columns = Collections.unmodifiableList(list);
+        this.titles = Collections.unmodifiableList(titleList);
+        this.titleColumns = Collections.unmodifiableMap(titleMap);
+        this.orderColumns = byOrder;
+        this.factory = RecordFactories.create(type, this.columns);
+    }
+
+    /**
+     * 获取类的绑定元数据
+     *
+     * @param type 目标类
+     * @return 绑定元数据
+     */
+    public static ExcelClassMapping of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * 获取行实例工厂
+     *
+     * @return 实例工厂
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RecordFactory<T> getFactory() {
+        return (RecordFactory<T>) factory;
+    }
+
+    /**
+     * 根据标题获取列
+     *
+     * @param title 标题
+     * @return 列，不存在时为null
+     */
+    public ExcelColumnMapping getColumn(String title) {
+        return titleColumns.get(title);
+    }
+
+    /**
+     * 根据order获取列
+     *
+     * @param order 列索引
+     * @return 列，不存在时为null
+     */
+    public ExcelColumnMapping getColumnAt(int order) {
+        return order >= 0 && order < orderColumns.length ? orderColumns[order] : null;
+    }
+
+    /**
+     * 最大列宽（最大order + 1）
+     */
+    public int getWidth() {
+        return orderColumns.length;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+}
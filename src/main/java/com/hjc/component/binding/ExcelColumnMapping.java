@@ -0,0 +1,217 @@
+package com.hjc.component.binding;
+
+import com.hjc.component.annotation.ExcelCell;
+import com.hjc.component.service.BaseDataTypeHandleCommand;
+import com.hjc.component.service.BaseDataTypeHandleCommandContext;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Field;
+import java.math.RoundingMode;
+import java.util.regex.Pattern;
+
+/**
+ * @author by hjc
+ * @Classname ExcelColumnMapping
+ * @Description 单列绑定元数据：属性、标题、格式及校验约束，构建后不可变
+ * @Date 2019/7/9 21:36
+ */
+@Getter
+public final class ExcelColumnMapping {
+
+    /**
+     * 属性
+     */
+    private final Field field;
+
+    /**
+     * 读写器
+     */
+    private final FieldAccessor accessor;
+
+    /**
+     * 在列集合中的位置
+     */
+    private final int index;
+
+    /**
+     * 属性类型
+     */
+    private final Class<?> type;
+
+    /**
+     * 标题
+     */
+    private final String title;
+
+    /**
+     * 排序（即列索引）
+     */
+    private final int order;
+
+    /**
+     * 格式
+     */
+    private final String format;
+
+    /**
+     * 是否必填
+     */
+    private final boolean notNull;
+
+    /**
+     * 正则，未配置时为空串
+     */
+    private final String pattern;
+
+    /**
+     * 预编译正则，未配置时为null
+     */
+    private final Pattern compiledPattern;
+
+    /**
+     * 枚举值
+     */
+    private final String[] enums;
+
+    /**
+     * 批注信息
+     */
+    private final String comment;
+
+    /**
+     * 字段长度
+     */
+    private final int length;
+
+    /**
+     * 小数位数，小于0时使用处理器默认值
+     */
+    private final int scale;
+
+    /**
+     * 小数舍入方式
+     */
+    private final RoundingMode rounding;
+
+    /**
+     * 编译后的校验链
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final CellValidator[] validators;
+
+    /**
+     * 已解析的类型处理器，首次使用、换用其他上下文或注册表变更后重新解析
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile ResolvedHandler handler;
+
+    ExcelColumnMapping(Field field, ExcelCell ant, int index) {
+        field.setAccessible(true);
+        this.field = field;
+        this.accessor = Accessors.of(field);
+        this.index = index;
+        this.type = field.getType();
+        this.title = ant.title();
+        this.order = ant.order();
+        this.format = ant.format();
+        this.notNull = ant.notNull();
+        this.pattern = ant.pattern();
+        this.compiledPattern = StringUtils.isBlank(ant.pattern()) ? null : Pattern.compile(ant.pattern());
+        this.enums = ant.enums().clone();
+        this.comment = ant.comment();
+        this.length = ant.length();
+        this.scale = ant.scale();
+        this.rounding = ant.rounding();
+        this.validators = CellValidators.compile(field.getName(), ant, compiledPattern);
+    }
+
+    /**
+     * 属性名
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * 读取实例中该列的值
+     *
+     * @param instance 实例
+     * @return 值
+     */
+    public Object getValue(Object instance) {
+        return accessor.get(instance);
+    }
+
+    /**
+     * 是否配置了枚举值
+     */
+    public boolean hasEnums() {
+        return enums.length > 0;
+    }
+
+    /**
+     * 枚举值（副本）
+     */
+    public String[] getEnums() {
+        return enums.clone();
+    }
+
+    /**
+     * 按校验链校验单元格值，多项不通过时返回最后一项的错误信息
+     *
+     * @param value 单元格值，已去掉首尾空白，不为null
+     * @return 错误信息，校验通过时为null
+     */
+    public String validate(String value) {
+        String error = null;
+        for (CellValidator validator : validators) {
+            String message = validator.validate(value);
+            if (message != null) {
+                error = message;
+            }
+        }
+        return error;
+    }
+
+    /**
+     * 除非空外是否还有需要单元格文本的校验
+     */
+    public boolean hasTextValidators() {
+        return validators.length > (notNull ? 1 : 0);
+    }
+
+    /**
+     * 获取该列的类型处理器
+     *
+     * @param context 处理器上下文
+     * @return 类型处理器
+     */
+    public BaseDataTypeHandleCommand getHandler(BaseDataTypeHandleCommandContext context) {
+        ResolvedHandler resolved = handler;
+        int version = context.getVersion();
+        if (resolved == null || resolved.context != context || resolved.version != version) {
+            resolved = new ResolvedHandler(context, context.getInstance(type), version);
+            handler = resolved;
+        }
+        return resolved.command;
+    }
+
+    /**
+     * 按上下文实例及其版本缓存的处理器，多个上下文交替使用时各自重新解析
+     */
+    private static final class ResolvedHandler {
+
+        private final BaseDataTypeHandleCommandContext context;
+
+        private final BaseDataTypeHandleCommand command;
+
+        private final int version;
+
+        ResolvedHandler(BaseDataTypeHandleCommandContext context, BaseDataTypeHandleCommand command, int version) {
+            this.context = context;
+            this.command = command;
+            this.version = version;
+        }
+    }
+}
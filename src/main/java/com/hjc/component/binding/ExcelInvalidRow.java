@@ -0,0 +1,215 @@
+package com.hjc.component.binding;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname ExcelInvalidRow
+ * @Description 未通过校验的行：只保存sheet、行号、各列原始文本，以及出错列的位置与错误信息（按列位置升序的紧凑数组），
+ * 以及不对应任何列的行级错误；不持有POI的行或工作簿，解析结束后工作簿即可回收；按标题的错误信息在读取时再拼接
+ * @Date 2019/7/9 21:36
+ */
+@Getter
+public class ExcelInvalidRow {
+
+    private static final int[] NO_COLUMNS = new int[0];
+
+    private static final String[] NO_ERRORS = new String[0];
+
+    /**
+     * 目标类
+     */
+    private final Class<?> type;
+
+    /**
+     * 工作表索引
+     */
+    private final int sheetIndex;
+
+    /**
+     * sheet名
+     */
+    private final String sheetName;
+
+    /**
+     * 行号，从1开始，与Excel中显示的一致
+     */
+    private final int rowNum;
+
+    /**
+     * 各列原始文本，下标为列位置（见{@link ExcelColumnMapping#getIndex()}），单元格不存在时为null
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final String[] values;
+
+    /**
+     * 出错列的位置，升序
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final int[] errorColumns;
+
+    /**
+     * 与errorColumns一一对应的错误信息
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final String[] errors;
+
+    /**
+     * 不是列标题的错误键（如整行校验），与rowErrors一一对应
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final String[] rowErrorKeys;
+
+    /**
+     * 行级错误信息
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private final String[] rowErrors;
+
+    /**
+     * @param type       目标类
+     * @param sheetIndex 工作表索引
+     * @param sheetName  sheet名
+     * @param rowNum     行号，从1开始
+     * @param values     各列原始文本，下标为列位置，由本实例持有
+     * @param errMsg     转换时收集的【标题->错误信息】，键不是列标题的作为行级错误保留
+     */
+    protected ExcelInvalidRow(Class<?> type, int sheetIndex, String sheetName, int rowNum, String[] values,
+                              Map<String, String> errMsg) {
+        this.type = type;
+        this.sheetIndex = sheetIndex;
+        this.sheetName = sheetName;
+        this.rowNum = rowNum;
+        this.values = values;
+        List<String> titles = ExcelClassMapping.of(type).getTitles();
+        int[] columns = new int[Math.min(errMsg.size(), titles.size())];
+        String[] messages = new String[columns.length];
+        int count = 0;
+        for (int i = 0; i < titles.size() && count < columns.length; i++) {
+            String message = errMsg.get(titles.get(i));
+            if (message != null) {
+                columns[count] = i;
+                messages[count++] = message;
+            }
+        }
+        this.errorColumns = count == 0 ? NO_COLUMNS : count < columns.length ? Arrays.copyOf(columns, count) : columns;
+        this.errors = count == 0 ? NO_ERRORS : count < messages.length ? Arrays.copyOf(messages, count) : messages;
+        if (count == errMsg.size()) {
+            this.rowErrorKeys = NO_ERRORS;
+            this.rowErrors = NO_ERRORS;
+        } else {
+            ExcelClassMapping mapping = ExcelClassMapping.of(type);
+            List<String> keys = new ArrayList<>(errMsg.size() - count);
+            List<String> rowMessages = new ArrayList<>(errMsg.size() - count);
+            for (Map.Entry<String, String> entry : errMsg.entrySet()) {
+                if (mapping.getColumn(entry.getKey()) == null) {
+                    keys.add(entry.getKey());
+                    rowMessages.add(entry.getValue());
+                }
+            }
+            this.rowErrorKeys = keys.toArray(NO_ERRORS);
+            this.rowErrors = rowMessages.toArray(NO_ERRORS);
+        }
+    }
+
+    /**
+     * @return 原始文本的列数
+     */
+    public int getWidth() {
+        return values.length;
+    }
+
+    /**
+     * @param column 列位置
+     * @return 原始文本，单元格不存在时为null
+     */
+    public String getValue(int column) {
+        return column >= 0 && column < values.length ? values[column] : null;
+    }
+
+    /**
+     * @return 出错的列数
+     */
+    public int getErrorCount() {
+        return errorColumns.length;
+    }
+
+    /**
+     * @return 行级错误数
+     */
+    public int getRowErrorCount() {
+        return rowErrors.length;
+    }
+
+    /**
+     * @param i 第几个出错列，从0开始
+     * @return 出错列的位置
+     */
+    public int getErrorColumn(int i) {
+        return errorColumns[i];
+    }
+
+    /**
+     * @param column 列位置
+     * @return 该列的错误信息，未出错时为null
+     */
+    public String getError(int column) {
+        int i = Arrays.binarySearch(errorColumns, column);
+        return i >= 0 ? errors[i] : null;
+    }
+
+    /**
+     * @param column 列位置
+     * @return 该列是否出错
+     */
+    public boolean hasError(int column) {
+        return Arrays.binarySearch(errorColumns, column) >= 0;
+    }
+
+    /**
+     * @return 【标题->错误信息】，按列顺序，行级错误在后，每次调用重新生成
+     */
+    public Map<String, String> getErrMsg() {
+        List<String> titles = ExcelClassMapping.of(type).getTitles();
+        Map<String, String> errMsg = new LinkedHashMap<>((errorColumns.length + rowErrors.length) * 2);
+        for (int i = 0; i < errorColumns.length; i++) {
+            errMsg.put(titles.get(errorColumns[i]), errors[i]);
+        }
+        for (int i = 0; i < rowErrors.length; i++) {
+            errMsg.put(rowErrorKeys[i], rowErrors[i]);
+        }
+        return errMsg;
+    }
+
+    /**
+     * @return 每个出错列一行的“【标题】错误信息”，行级错误在后
+     */
+    public String getFormatErrorMsg() {
+        List<String> titles = ExcelClassMapping.of(type).getTitles();
+        StringBuilder buff = new StringBuilder();
+        for (int i = 0; i < errorColumns.length; i++) {
+            if (i > 0) {
+                buff.append("\r\n");
+            }
+            buff.append("【").append(titles.get(errorColumns[i])).append("】").append(errors[i]);
+        }
+        for (int i = 0; i < rowErrors.length; i++) {
+            if (buff.length() > 0) {
+                buff.append("\r\n");
+            }
+            buff.append("【").append(rowErrorKeys[i]).append("】").append(rowErrors[i]);
+        }
+        return buff.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(sheet=" + sheetName + ", rowNum=" + rowNum + ", errMsg=" + getErrMsg() + ")";
+    }
+}
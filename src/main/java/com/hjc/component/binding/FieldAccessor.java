@@ -0,0 +1,66 @@
+package com.hjc.component.binding;
+
+/**
+ * @author by hjc
+ * @Classname FieldAccessor
+ * @Description 属性读写器，替代逐单元格的Field.get/Field.set
+ * @Date 2019/7/9 21:36
+ */
+public interface FieldAccessor {
+
+    /**
+     * 读取属性值
+     *
+     * @param target 实例
+     * @return 属性值
+     */
+    Object get(Object target);
+
+    /**
+     * 写入属性值
+     *
+     * @param target 实例
+     * @param value  属性值
+     */
+    void set(Object target, Object value);
+
+    /**
+     * 写入int值，int属性不经装箱
+     *
+     * @param target 实例
+     * @param value  属性值
+     */
+    default void setInt(Object target, int value) {
+        set(target, value);
+    }
+
+    /**
+     * 写入long值，long属性不经装箱
+     *
+     * @param target 实例
+     * @param value  属性值
+     */
+    default void setLong(Object target, long value) {
+        set(target, value);
+    }
+
+    /**
+     * 写入double值，double属性不经装箱
+     *
+     * @param target 实例
+     * @param value  属性值
+     */
+    default void setDouble(Object target, double value) {
+        set(target, value);
+    }
+
+    /**
+     * 写入boolean值，boolean属性不经装箱
+     *
+     * @param target 实例
+     * @param value  属性值
+     */
+    default void setBoolean(Object target, boolean value) {
+        set(target, value);
+    }
+}
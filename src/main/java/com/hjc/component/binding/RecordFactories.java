@@ -0,0 +1,320 @@
+package com.hjc.component.binding;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @author by hjc
+ * @Classname RecordFactories
+ * @Description 按模型类选择实例构造方式：无参构造+setter、builder()、全参构造
+ * @Date 2019/7/9 21:36
+ */
+@Slf4j
+final class RecordFactories {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private RecordFactories() {
+    }
+
+    static <T> RecordFactory<T> create(Class<T> type, List<ExcelColumnMapping> columns) {
+        Supplier<T> constructor = Accessors.constructor(type);
+        if (constructor != null) {
+            return new SetterRecordFactory<>(constructor);
+        }
+        RecordFactory<T> factory = builderFactory(type, columns);
+        if (factory == null) {
+            factory = constructorFactory(type, columns);
+        }
+        if (factory == null) {
+            return new UnsupportedRecordFactory<>(type);
+        }
+        return factory;
+    }
+
+    /**
+     * lombok @Builder风格：静态builder()，按属性名的链式方法，build()
+     */
+    private static <T> RecordFactory<T> builderFactory(Class<T> type, List<ExcelColumnMapping> columns) {
+        try {
+            Method builderMethod = type.getMethod("builder");
+            if (!Modifier.isStatic(builderMethod.getModifiers())) {
+                return null;
+            }
+            Class<?> builderType = builderMethod.getReturnType();
+            Method buildMethod = builderType.getMethod("build");
+            if (!type.isAssignableFrom(buildMethod.getReturnType())) {
+                return null;
+            }
+            MethodHandle[] setters = new MethodHandle[columns.size()];
+            for (ExcelColumnMapping column : columns) {
+                Method method = builderType.getMethod(column.getName(), column.getType());
+                setters[column.getIndex()] = LOOKUP.unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+            MethodHandle builder = LOOKUP.unreflect(builderMethod).asType(MethodType.methodType(Object.class));
+            MethodHandle build = LOOKUP.unreflect(buildMethod).asType(MethodType.methodType(Object.class, Object.class));
+            return new BuilderRecordFactory<>(builder, setters, build);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 全参构造（如lombok @AllArgsConstructor）：按参数名对应属性，参数名取自@ConstructorProperties
+     * （lombok需配置lombok.anyConstructor.addConstructorProperties=true）或-parameters编译保留的参数名；
+     * JVM不保证属性的声明顺序与参数顺序一致，取不到参数名的构造不使用，避免同类型属性错位
+     */
+    private static <T> RecordFactory<T> constructorFactory(Class<T> type, List<ExcelColumnMapping> columns) {
+        for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+            String[] names = parameterNames(candidate);
+            if (names == null) {
+                continue;
+            }
+            Class<?>[] parameterTypes = candidate.getParameterTypes();
+            int[] slots = new int[columns.size()];
+            boolean matched = true;
+            for (ExcelColumnMapping column : columns) {
+                int slot = Arrays.asList(names).indexOf(column.getName());
+                if (slot < 0 || parameterTypes[slot] != column.getType()) {
+                    matched = false;
+                    break;
+                }
+                slots[column.getIndex()] = slot;
+            }
+            if (!matched) {
+                continue;
+            }
+            try {
+                candidate.setAccessible(true);
+                Object[] defaults = new Object[parameterTypes.length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    defaults[i] = defaultValue(parameterTypes[i]);
+                }
+                MethodHandle handle = LOOKUP.unreflectConstructor(candidate)
+                        .asSpreader(Object[].class, parameterTypes.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                return new ConstructorRecordFactory<>(handle, slots, defaults);
+            } catch (IllegalAccessException e) {
+                log.debug("构造方法不可访问：{}", candidate);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 构造方法的参数名，取不到时为null
+     */
+    private static String[] parameterNames(Constructor<?> constructor) {
+        ConstructorProperties properties = constructor.getAnnotation(ConstructorProperties.class);
+        if (properties != null) {
+            return properties.value().length == constructor.getParameterCount() ? properties.value() : null;
+        }
+        Parameter[] parameters = constructor.getParameters();
+        String[] names = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            if (!parameters[i].isNamePresent()) {
+                return null;
+            }
+            names[i] = parameters[i].getName();
+        }
+        return names;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        } else if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0F;
+        }
+        return 0D;
+    }
+
+    /**
+     * 无参构造 + setter
+     */
+    private static final class SetterRecordFactory<T> implements RecordFactory<T> {
+
+        private final Supplier<T> constructor;
+
+        SetterRecordFactory(Supplier<T> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Object newState() {
+            return constructor.get();
+        }
+
+        @Override
+        public void set(Object state, ExcelColumnMapping column, Object value) {
+            column.getAccessor().set(state, value);
+        }
+
+        @Override
+        public void setInt(Object state, ExcelColumnMapping column, int value) {
+            column.getAccessor().setInt(state, value);
+        }
+
+        @Override
+        public void setLong(Object state, ExcelColumnMapping column, long value) {
+            column.getAccessor().setLong(state, value);
+        }
+
+        @Override
+        public void setDouble(Object state, ExcelColumnMapping column, double value) {
+            column.getAccessor().setDouble(state, value);
+        }
+
+        @Override
+        public void setBoolean(Object state, ExcelColumnMapping column, boolean value) {
+            column.getAccessor().setBoolean(state, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T build(Object state) {
+            return (T) state;
+        }
+    }
+
+    /**
+     * builder
+     */
+    private static final class BuilderRecordFactory<T> implements RecordFactory<T> {
+
+        private final MethodHandle builder;
+
+        private final MethodHandle[] setters;
+
+        private final MethodHandle build;
+
+        BuilderRecordFactory(MethodHandle builder, MethodHandle[] setters, MethodHandle build) {
+            this.builder = builder;
+            this.setters = setters;
+            this.build = build;
+        }
+
+        @Override
+        public Object newState() {
+            try {
+                return (Object) builder.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("创建builder失败", e);
+            }
+        }
+
+        @Override
+        public void set(Object state, ExcelColumnMapping column, Object value) {
+            if (value == null && column.getType().isPrimitive()) {
+                return;
+            }
+            try {
+                setters[column.getIndex()].invokeExact(state, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("写入属性失败：" + column.getName(), e);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T build(Object state) {
+            try {
+                return (T) (Object) build.invokeExact(state);
+            } catch (Throwable e) {
+                throw new IllegalStateException("builder构建实例失败", e);
+            }
+        }
+    }
+
+    /**
+     * 全参构造
+     */
+    private static final class ConstructorRecordFactory<T> implements RecordFactory<T> {
+
+        private final MethodHandle constructor;
+
+        private final int[] slots;
+
+        private final Object[] defaults;
+
+        ConstructorRecordFactory(MethodHandle constructor, int[] slots, Object[] defaults) {
+            this.constructor = constructor;
+            this.slots = slots;
+            this.defaults = defaults;
+        }
+
+        @Override
+        public Object newState() {
+            return defaults.clone();
+        }
+
+        @Override
+        public void set(Object state, ExcelColumnMapping column, Object value) {
+            if (value == null && column.getType().isPrimitive()) {
+                return;
+            }
+            ((Object[]) state)[slots[column.getIndex()]] = value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T build(Object state) {
+            try {
+                return (T) (Object) constructor.invokeExact((Object[]) state);
+            } catch (Throwable e) {
+                throw new IllegalStateException("构造实例失败", e);
+            }
+        }
+    }
+
+    /**
+     * 无法构造实例的类，使用时抛出异常
+     */
+    private static final class UnsupportedRecordFactory<T> implements RecordFactory<T> {
+
+        private final Class<T> type;
+
+        UnsupportedRecordFactory(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object newState() {
+            throw new IllegalStateException("无法创建实例，缺少无参构造、builder()或带参数名的全参构造：" + type.getName());
+        }
+
+        @Override
+        public void set(Object state, ExcelColumnMapping column, Object value) {
+            throw new IllegalStateException("无法创建实例：" + type.getName());
+        }
+
+        @Override
+        public T build(Object state) {
+            throw new IllegalStateException("无法创建实例：" + type.getName());
+        }
+    }
+}
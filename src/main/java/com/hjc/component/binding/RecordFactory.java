@@ -0,0 +1,79 @@
+package com.hjc.component.binding;
+
+/**
+ * @author by hjc
+ * @Classname RecordFactory
+ * @Description 导入行实例工厂：先创建构造状态，逐列写值，最后生成实例。
+ * 构造状态可以是实例本身（setter）、builder或构造参数数组
+ * @Date 2019/7/9 21:36
+ */
+public interface RecordFactory<T> {
+
+    /**
+     * 为一行数据创建构造状态
+     *
+     * @return 构造状态
+     */
+    Object newState();
+
+    /**
+     * 写入列值
+     *
+     * @param state  构造状态
+     * @param column 列
+     * @param value  已转换的值
+     */
+    void set(Object state, ExcelColumnMapping column, Object value);
+
+    /**
+     * 写入int列值，默认装箱后调用{@link #set}
+     *
+     * @param state  构造状态
+     * @param column 列
+     * @param value  已转换的值
+     */
+    default void setInt(Object state, ExcelColumnMapping column, int value) {
+        set(state, column, value);
+    }
+
+    /**
+     * 写入long列值，默认装箱后调用{@link #set}
+     *
+     * @param state  构造状态
+     * @param column 列
+     * @param value  已转换的值
+     */
+    default void setLong(Object state, ExcelColumnMapping column, long value) {
+        set(state, column, value);
+    }
+
+    /**
+     * 写入double列值，默认装箱后调用{@link #set}
+     *
+     * @param state  构造状态
+     * @param column 列
+     * @param value  已转换的值
+     */
+    default void setDouble(Object state, ExcelColumnMapping column, double value) {
+        set(state, column, value);
+    }
+
+    /**
+     * 写入boolean列值，默认装箱后调用{@link #set}
+     *
+     * @param state  构造状态
+     * @param column 列
+     * @param value  已转换的值
+     */
+    default void setBoolean(Object state, ExcelColumnMapping column, boolean value) {
+        set(state, column, value);
+    }
+
+    /**
+     * 生成实例
+     *
+     * @param state 构造状态
+     * @return 实例
+     */
+    T build(Object state);
+}
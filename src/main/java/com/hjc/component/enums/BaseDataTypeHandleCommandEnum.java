@@ -11,15 +11,24 @@ import java.util.Map;
  */
 public enum BaseDataTypeHandleCommandEnum {
 
-    ALL("all", "获取所有命令", "PrintAllCommand"),
-    STRING("java.lang.String", "String处理", "StringHandleCommand"),
-    INTEGER("java.lang.Integer", "Integer处理", "IntegerHandleCommand"),
-    FLOAT("java.lang.Float", "FLOAT处理", "FloatHandleCommand"),
-    DOUBLE("java.lang.Double", "Double处理", "DoubleHandleCommand"),
-    BIG_DECIMAL("java.math.BigDecimal", "BigInt处理", "BigDecimalHandleCommand"),
-    BOOLEAN("java.lang.Boolean", "Boolean处理", "BooleanHandleCommand"),
-    TIMESTAMP("java.sql.Timestamp", "TimeStamp处理", "TimestampHandleCommand"),
-    DATE("java.util.Date", "Date处理", "DateHandleCommand");
+    ALL("all", "获取所有命令", "PrintAllCommand", null),
+    STRING("java.lang.String", "String处理", "StringHandleCommand", String.class),
+    INTEGER("java.lang.Integer", "Integer处理", "IntegerHandleCommand", Integer.class),
+    INT("int", "int处理", "IntegerHandleCommand", int.class),
+    LONG("java.lang.Long", "Long处理", "LongHandleCommand", Long.class),
+    PRIMITIVE_LONG("long", "long处理", "LongHandleCommand", long.class),
+    FLOAT("java.lang.Float", "FLOAT处理", "FloatHandleCommand", Float.class),
+    PRIMITIVE_FLOAT("float", "float处理", "FloatHandleCommand", float.class),
+    DOUBLE("java.lang.Double", "Double处理", "DoubleHandleCommand", Double.class),
+    PRIMITIVE_DOUBLE("double", "double处理", "DoubleHandleCommand", double.class),
+    BIG_DECIMAL("java.math.BigDecimal", "BigInt处理", "BigDecimalHandleCommand", java.math.BigDecimal.class),
+    BOOLEAN("java.lang.Boolean", "Boolean处理", "BooleanHandleCommand", Boolean.class),
+    PRIMITIVE_BOOLEAN("boolean", "boolean处理", "BooleanHandleCommand", boolean.class),
+    TIMESTAMP("java.sql.Timestamp", "TimeStamp处理", "TimestampHandleCommand", java.sql.Timestamp.class),
+    DATE("java.util.Date", "Date处理", "DateHandleCommand", java.util.Date.class),
+    LOCAL_DATE("java.time.LocalDate", "LocalDate处理", "LocalDateHandleCommand", java.time.LocalDate.class),
+    LOCAL_DATE_TIME("java.time.LocalDateTime", "LocalDateTime处理", "LocalDateTimeHandleCommand", java.time.LocalDateTime.class),
+    INSTANT("java.time.Instant", "Instant处理", "InstantHandleCommand", java.time.Instant.class);
 
 
     /**
@@ -35,17 +44,25 @@ public enum BaseDataTypeHandleCommandEnum {
      */
     private final String clazz;
 
+    /**
+     * 处理的数据类型
+     */
+    private final Class<?> type;
+
 
     /**
      * 构建一个 。
      *
      * @param commandType 枚举值码。
      * @param desc        枚举描述。
+     * @param clazz       实现类。
+     * @param type        处理的数据类型。
      */
-    private BaseDataTypeHandleCommandEnum(String commandType, String desc, String clazz) {
+    private BaseDataTypeHandleCommandEnum(String commandType, String desc, String clazz, Class<?> type) {
         this.commandType = commandType;
         this.desc = desc;
         this.clazz = clazz;
+        this.type = type;
     }
 
     /**
@@ -66,6 +83,15 @@ public enum BaseDataTypeHandleCommandEnum {
         return clazz;
     }
 
+    /**
+     * 获取处理的数据类型。
+     *
+     * @return 数据类型，ALL为null。
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
     /**
      * 得到枚举描述。
      *
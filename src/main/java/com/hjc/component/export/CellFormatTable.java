@@ -0,0 +1,75 @@
+package com.hjc.component.export;
+
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.util.CellWriters;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author by hjc
+ * @Classname CellFormatTable
+ * @Description 数值、日期列的显示格式，每个格式在styles.xml中对应一个cellXfs样式，排在表头样式之后；
+ * 格式的选取与{@link CellWriters}一致，并行渲染时多个sheet共用
+ * @Date 2019/7/9 21:36
+ */
+final class CellFormatTable {
+
+    /**
+     * 第一个格式样式的下标，之前为默认样式和两种表头样式
+     */
+    private static final int FIRST_STYLE = SheetRenderer.STYLE_TITLE_REQUIRED + 1;
+
+    private final List<String> formats = new ArrayList<>();
+
+    /**
+     * 登记各列用到的格式，按列顺序分配样式下标
+     *
+     * @param columns 属性列
+     */
+    synchronized void register(List<ExcelColumnMapping> columns) {
+        for (ExcelColumnMapping column : columns) {
+            String format = formatOf(column);
+            if (format != null) {
+                styleOf(format);
+            }
+        }
+    }
+
+    /**
+     * @param format 显示格式
+     * @return cellXfs中的样式下标，格式首次出现时登记
+     */
+    synchronized int styleOf(String format) {
+        int index = formats.indexOf(format);
+        if (index < 0) {
+            index = formats.size();
+            formats.add(format);
+        }
+        return FIRST_STYLE + index;
+    }
+
+    /**
+     * @return 已登记的格式，下标与样式顺序一致
+     */
+    synchronized List<String> getFormats() {
+        return new ArrayList<>(formats);
+    }
+
+    /**
+     * 列的显示格式：小数列按scale，日期列为Excel可表示的format
+     *
+     * @return 显示格式，不需要时为null
+     */
+    static String formatOf(ExcelColumnMapping column) {
+        Class<?> type = ClassUtils.primitiveToWrapper(column.getType());
+        if (Number.class.isAssignableFrom(type)) {
+            return CellWriters.numberFormat(column);
+        }
+        if (CellWriters.isDate(type) && CellWriters.isExcelDateFormat(column.getFormat())) {
+            return column.getFormat();
+        }
+        return null;
+    }
+}
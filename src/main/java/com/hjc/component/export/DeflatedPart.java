@@ -0,0 +1,100 @@
+package com.hjc.component.export;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * @author by hjc
+ * @Classname DeflatedPart
+ * @Description 已压缩的zip条目数据：写入时即按zip的deflate格式压缩到临时文件，并记录CRC及压缩前后大小，
+ * 拼接时原样复制，不再压缩；close时删除临时文件
+ * @Date 2019/7/9 21:36
+ */
+final class DeflatedPart implements Closeable {
+
+    private final Path file;
+
+    private final CRC32 crc = new CRC32();
+
+    private long size;
+
+    private long compressedSize;
+
+    private DeflatedPart(Path file) {
+        this.file = file;
+    }
+
+    static DeflatedPart create() throws IOException {
+        return new DeflatedPart(Files.createTempFile("excel-part-", ".deflate"));
+    }
+
+    /**
+     * 打开写入流，关闭该流后数据及统计信息才完整
+     *
+     * @param level 压缩级别
+     */
+    OutputStream open(int level) throws IOException {
+        Deflater deflater = new Deflater(level, true);
+        OutputStream fileOut = Files.newOutputStream(file);
+        DeflaterOutputStream deflated = new DeflaterOutputStream(new BufferedOutputStream(fileOut, 1 << 16), deflater, 1 << 16);
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                crc.update(b);
+                size++;
+                deflated.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                crc.update(b, off, len);
+                size += len;
+                deflated.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                //DeflaterOutputStream在finish失败时不关闭下层流，文件句柄另行关闭
+                try (OutputStream ignored = fileOut) {
+                    deflated.close();
+                    compressedSize = deflater.getBytesWritten();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    long getCrc() {
+        return crc.getValue();
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * 复制压缩后的数据
+     *
+     * @param out 输出流
+     */
+    void copyTo(OutputStream out) throws IOException {
+        Files.copy(file, out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
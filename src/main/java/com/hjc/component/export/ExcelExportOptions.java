@@ -0,0 +1,48 @@
+package com.hjc.component.export;
+
+import lombok.Data;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+/**
+ * @author by hjc
+ * @Classname ExcelExportOptions
+ * @Description 大批量导出选项
+ * @Date 2019/7/9 21:36
+ */
+@Data
+public class ExcelExportOptions {
+
+    /**
+     * SXSSF内存中保留的行数，超出的行写入临时文件
+     */
+    private int windowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+    /**
+     * 临时文件是否gzip压缩，行数多、磁盘紧张时开启，会增加CPU开销
+     */
+    private boolean compressTempFiles;
+
+    /**
+     * 每个sheet的最大数据行数（不含表头），超出时续写到“sheet名_2”等新sheet，默认为xlsx的行数上限
+     */
+    private int maxRowsPerSheet = (1 << 20) - 1;
+
+    /**
+     * 流式xlsx导出是否使用共享字符串表：重复值多时文件更小，但需在内存中保留全部不同的字符串；默认使用内联字符串
+     */
+    private boolean sharedStrings;
+
+    /**
+     * 流式xlsx导出的zip压缩级别（0-9），越低越快、文件越大；写出耗时主要在压缩，默认取最快级别
+     */
+    private int compressionLevel = Deflater.BEST_SPEED;
+
+    /**
+     * 流式xlsx导出的sheet渲染线程池，不为空时各数据源并行渲染、压缩为临时分片后再拼接为一个xlsx，
+     * 此时不使用共享字符串表
+     */
+    private Executor sheetExecutor;
+}
\ No newline at end of file
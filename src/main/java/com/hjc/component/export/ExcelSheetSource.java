@@ -0,0 +1,71 @@
+package com.hjc.component.export;
+
+import lombok.Getter;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * @author by hjc
+ * @Classname ExcelSheetSource
+ * @Description 一个sheet的导出数据源：目标类、sheet名及按需拉取的数据，导出时逐行读取，不要求全部数据预先加载
+ * @Date 2019/7/9 21:36
+ */
+@Getter
+public final class ExcelSheetSource<T> {
+
+    /**
+     * 目标类
+     */
+    private final Class<T> type;
+
+    /**
+     * sheet名
+     */
+    private final String title;
+
+    /**
+     * 数据，只遍历一次
+     */
+    private final Iterator<? extends T> records;
+
+    private ExcelSheetSource(Class<T> type, String title, Iterator<? extends T> records) {
+        this.type = type;
+        this.title = title;
+        this.records = records;
+    }
+
+    /**
+     * 以迭代器（如数据库游标）为数据源
+     *
+     * @param type    目标类
+     * @param title   sheet名
+     * @param records 数据
+     */
+    public static <T> ExcelSheetSource<T> of(Class<T> type, String title, Iterator<? extends T> records) {
+        return new ExcelSheetSource<>(type, title, records);
+    }
+
+    /**
+     * 以集合或游标为数据源
+     *
+     * @param type    目标类
+     * @param title   sheet名
+     * @param records 数据
+     */
+    public static <T> ExcelSheetSource<T> of(Class<T> type, String title, Iterable<? extends T> records) {
+        return new ExcelSheetSource<>(type, title, records.iterator());
+    }
+
+    /**
+     * 以分页查询为数据源，页码从1开始，返回null或空页时结束；导出时只持有当前页
+     *
+     * @param type  目标类
+     * @param title sheet名
+     * @param pages 页码->该页数据
+     */
+    public static <T> ExcelSheetSource<T> paged(Class<T> type, String title, IntFunction<? extends List<? extends T>> pages) {
+        return new ExcelSheetSource<>(type, title, new PagedIterator<>(pages));
+    }
+}
\ No newline at end of file
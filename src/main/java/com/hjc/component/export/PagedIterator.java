@@ -0,0 +1,56 @@
+package com.hjc.component.export;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * @author by hjc
+ * @Classname PagedIterator
+ * @Description 按页拉取的迭代器，当前页遍历完才查询下一页，已遍历的页可被回收
+ * @Date 2019/7/9 21:36
+ */
+class PagedIterator<T> implements Iterator<T> {
+
+    private final IntFunction<? extends List<? extends T>> pages;
+
+    private Iterator<? extends T> current = Collections.emptyIterator();
+
+    /**
+     * 下一次查询的页码
+     */
+    private int pageNo = 1;
+
+    private boolean finished;
+
+    PagedIterator(IntFunction<? extends List<? extends T>> pages) {
+        this.pages = pages;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            List<? extends T> page = pages.apply(pageNo++);
+            if (page == null || page.isEmpty()) {
+                finished = true;
+                current = Collections.emptyIterator();
+                return false;
+            }
+            current = page.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+}
\ No newline at end of file
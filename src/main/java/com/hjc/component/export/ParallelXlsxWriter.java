@@ -0,0 +1,218 @@
+package com.hjc.component.export;
+
+import com.hjc.component.binding.ExcelClassMapping;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * @author by hjc
+ * @Classname ParallelXlsxWriter
+ * @Description 多sheet并行导出：每个数据源在线程池上独立渲染并压缩为临时分片，全部完成后与共用的样式、
+ * workbook等部件拼接为一个xlsx，总耗时取决于最大的sheet而不是所有sheet之和；使用内联字符串
+ * @Date 2019/7/9 21:36
+ */
+public final class ParallelXlsxWriter {
+
+    private ParallelXlsxWriter() {
+    }
+
+    /**
+     * 并行渲染各数据源并写出xlsx，临时分片在结束时（包括失败时）删除
+     *
+     * @param out      输出流，写完后flush，不关闭
+     * @param sources  各sheet的数据源
+     * @param options  导出选项
+     * @param executor 渲染线程池
+     */
+    public static void write(OutputStream out, List<ExcelSheetSource<?>> sources, ExcelExportOptions options, Executor executor) throws IOException {
+        //按数据源顺序预先登记格式，样式下标不受渲染完成顺序影响
+        CellFormatTable formats = new CellFormatTable();
+        for (ExcelSheetSource<?> source : sources) {
+            formats.register(ExcelClassMapping.of(source.getType()).getColumns());
+        }
+        List<CompletableFuture<List<RenderedSheet>>> futures = new ArrayList<>(sources.size());
+        for (ExcelSheetSource<?> source : sources) {
+            futures.add(CompletableFuture.supplyAsync(() -> render(source, options, formats), executor));
+        }
+        List<RenderedSheet> sheets = new ArrayList<>();
+        Throwable failure = null;
+        //等待全部完成，失败时也要拿到其余分片以便删除
+        for (CompletableFuture<List<RenderedSheet>> future : futures) {
+            try {
+                sheets.addAll(future.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        Throwable primary = null;
+        try {
+            if (failure instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) failure).getCause();
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure != null) {
+                throw new IllegalStateException("excel并行导出失败", failure);
+            }
+            assemble(out, sheets, options, formats);
+        } catch (Throwable e) {
+            primary = e;
+            throw e;
+        } finally {
+            closeAll(sheets, primary);
+        }
+    }
+
+    /**
+     * 逐个删除分片，某个失败不影响其余分片；已有原始异常时删除失败作为其suppressed，否则抛出第一个删除失败
+     */
+    private static void closeAll(List<RenderedSheet> sheets, Throwable primary) throws IOException {
+        IOException failure = null;
+        for (RenderedSheet sheet : sheets) {
+            try {
+                sheet.part.close();
+            } catch (IOException e) {
+                if (primary != null) {
+                    primary.addSuppressed(e);
+                } else if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void assemble(OutputStream out, List<RenderedSheet> sheets, ExcelExportOptions options,
+                                 CellFormatTable formats) throws IOException {
+        if (sheets.isEmpty()) {
+            throw new IllegalStateException("没有可导出的sheet");
+        }
+        List<String> sheetNames = new ArrayList<>(sheets.size());
+        for (RenderedSheet sheet : sheets) {
+            XlsxParts.checkSheetName(sheetNames, sheet.name);
+            sheetNames.add(sheet.name);
+        }
+        int level = options.getCompressionLevel();
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        ZipAssembler zip = new ZipAssembler(buffered);
+        zip.add(XlsxParts.CONTENT_TYPES, XlsxParts.contentTypes(sheets.size(), false), level);
+        zip.add(XlsxParts.ROOT_RELS, XlsxParts.rootRels(), level);
+        zip.add(XlsxParts.WORKBOOK, XlsxParts.workbook(sheetNames), level);
+        zip.add(XlsxParts.WORKBOOK_RELS, XlsxParts.workbookRels(sheets.size(), false), level);
+        zip.add(XlsxParts.STYLES, XlsxParts.styles(formats.getFormats()), level);
+        for (int i = 0; i < sheets.size(); i++) {
+            zip.add(XlsxParts.sheet(i + 1), sheets.get(i).part);
+        }
+        zip.finish();
+        buffered.flush();
+    }
+
+    /**
+     * 渲染一个数据源，超过每个sheet的最大行数时产生多个分片；失败时关闭正在写的分片并删除已产生的分片
+     */
+    private static List<RenderedSheet> render(ExcelSheetSource<?> source, ExcelExportOptions options, CellFormatTable formats) {
+        List<RenderedSheet> sheets = new ArrayList<>(1);
+        PartSink sink = new PartSink(sheets, options.getCompressionLevel());
+        SheetRenderer renderer = new SheetRenderer(options, null, formats);
+        try {
+            renderer.render(source, sink);
+            return sheets;
+        } catch (IOException e) {
+            sink.abort(e);
+            discard(sheets, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            sink.abort(e);
+            discard(sheets, e);
+            throw e;
+        }
+    }
+
+    private static void discard(List<RenderedSheet> sheets, Throwable primary) {
+        try {
+            closeAll(sheets, primary);
+        } catch (IOException ignored) {
+            //primary不为null时删除失败已记为suppressed，不会抛出
+        }
+    }
+
+    /**
+     * 每个分片写入一个临时文件
+     */
+    private static final class PartSink implements SheetRenderer.Sink {
+
+        private final List<RenderedSheet> sheets;
+
+        private final int level;
+
+        /**
+         * 正在写的分片，end后为null
+         */
+        private Writer out;
+
+        PartSink(List<RenderedSheet> sheets, int level) {
+            this.sheets = sheets;
+            this.level = level;
+        }
+
+        @Override
+        public Writer begin(String sheetName) throws IOException {
+            DeflatedPart part = DeflatedPart.create();
+            sheets.add(new RenderedSheet(sheetName, part));
+            out = new BufferedWriter(new OutputStreamWriter(part.open(level), StandardCharsets.UTF_8), 1 << 16);
+            return out;
+        }
+
+        @Override
+        public void end() throws IOException {
+            Writer writer = out;
+            out = null;
+            writer.close();
+        }
+
+        /**
+         * 失败时关闭正在写的分片，释放文件句柄及Deflater，关闭异常作为原始异常的suppressed
+         */
+        void abort(Throwable primary) {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException | RuntimeException e) {
+                primary.addSuppressed(e);
+            } finally {
+                out = null;
+            }
+        }
+    }
+
+    private static final class RenderedSheet {
+
+        private final String name;
+
+        private final DeflatedPart part;
+
+        RenderedSheet(String name, DeflatedPart part) {
+            this.name = name;
+            this.part = part;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hjc.component.export;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname SharedStringTable
+ * @Description 流式导出的共享字符串表，按首次出现顺序编号
+ * @Date 2019/7/9 21:36
+ */
+class SharedStringTable {
+
+    private final Map<String, Integer> indexes = new HashMap<>(1024);
+
+    private final List<String> strings = new ArrayList<>(1024);
+
+    /**
+     * 被引用的总次数
+     */
+    private long refs;
+
+    /**
+     * @param text 文本
+     * @return 文本在表中的下标，首次出现时加入
+     */
+    int indexOf(String text) {
+        Integer index = indexes.get(text);
+        if (index == null) {
+            index = strings.size();
+            indexes.put(text, index);
+            strings.add(text);
+        }
+        refs++;
+        return index;
+    }
+
+    List<String> getStrings() {
+        return strings;
+    }
+
+    long getRefs() {
+        return refs;
+    }
+}
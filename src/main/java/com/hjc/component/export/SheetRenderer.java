@@ -0,0 +1,280 @@
+package com.hjc.component.export;
+
+import com.hjc.component.binding.ExcelClassMapping;
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.util.CellValueUtil;
+import com.hjc.component.util.CellWriters;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.poi.ss.util.CellReference;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * @author by hjc
+ * @Classname SheetRenderer
+ * @Description 将一个数据源渲染为worksheet XML，超过每个sheet的最大行数时续写到“sheet名_2”等新sheet；
+ * 输出位置由Sink决定，可以是zip条目，也可以是单独的压缩分片；单元格类型按{@link CellWriters}的规则选取，
+ * 数值、布尔、日期写为原生单元格，与POI导出一致
+ * @Date 2019/7/9 21:36
+ */
+@Slf4j
+class SheetRenderer {
+
+    /**
+     * 表头样式：普通列、必填列，对应styles.xml中cellXfs的下标
+     */
+    static final int STYLE_TITLE = 1;
+
+    static final int STYLE_TITLE_REQUIRED = 2;
+
+    /**
+     * sheet输出位置
+     */
+    interface Sink {
+
+        /**
+         * 开始一个sheet
+         *
+         * @param sheetName sheet名
+         * @return 写入worksheet XML的Writer
+         */
+        Writer begin(String sheetName) throws IOException;
+
+        /**
+         * 当前sheet写完
+         */
+        void end() throws IOException;
+    }
+
+    /**
+     * 单列的单元格写出方式，值不为null
+     */
+    private interface ValueWriter {
+
+        void write(String columnName, String rowNum, Object value) throws IOException;
+    }
+
+    private final int maxRowsPerSheet;
+
+    /**
+     * 共享字符串表，为null时使用内联字符串
+     */
+    private final SharedStringTable sharedStrings;
+
+    /**
+     * 数值、日期格式对应的样式
+     */
+    private final CellFormatTable formats;
+
+    private Writer out;
+
+    SheetRenderer(ExcelExportOptions options, SharedStringTable sharedStrings, CellFormatTable formats) {
+        this.maxRowsPerSheet = options.getMaxRowsPerSheet();
+        this.sharedStrings = sharedStrings;
+        this.formats = formats;
+    }
+
+    /**
+     * 渲染一个数据源
+     *
+     * @param source 数据源
+     * @param sink   输出位置
+     * @return 写出的数据行数
+     */
+    long render(ExcelSheetSource<?> source, Sink sink) throws IOException {
+        List<ExcelColumnMapping> columns = ExcelClassMapping.of(source.getType()).getColumns();
+        String[] columnNames = new String[columns.size()];
+        ValueWriter[] writers = new ValueWriter[columns.size()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = CellReference.convertNumToColString(i);
+            writers[i] = writerOf(columns.get(i));
+        }
+        Iterator<?> records = source.getRecords();
+        long total = 0;
+        int part = 1;
+        startSheet(sink.begin(source.getTitle()), columns, columnNames);
+        int rowCount = 0;
+        while (records.hasNext()) {
+            Object instance = records.next();
+            if (rowCount == maxRowsPerSheet) {
+                endSheet(sink);
+                part++;
+                startSheet(sink.begin(source.getTitle() + "_" + part), columns, columnNames);
+                rowCount = 0;
+            }
+            //表头占第1行
+            String rowNum = Integer.toString(rowCount + 2);
+            out.write("<row r=\"");
+            out.write(rowNum);
+            out.write("\">");
+            for (int i = 0; i < columnNames.length; i++) {
+                try {
+                    Object value = columns.get(i).getValue(instance);
+                    if (value != null) {
+                        writers[i].write(columnNames[i], rowNum, value);
+                    }
+                } catch (IllegalStateException e) {
+                    log.warn("excel 数据转换失败：" + e);
+                }
+            }
+            out.write("</row>");
+            rowCount++;
+            total++;
+        }
+        endSheet(sink);
+        return total;
+    }
+
+    /**
+     * 按属性类型与format选定单列的写出方式，规则与{@link CellWriters#of}一致
+     */
+    private ValueWriter writerOf(ExcelColumnMapping column) {
+        Class<?> type = ClassUtils.primitiveToWrapper(column.getType());
+        String format = CellFormatTable.formatOf(column);
+        int style = format != null ? formats.styleOf(format) : -1;
+        if (type == Boolean.class) {
+            return (columnName, rowNum, value) -> writeBooleanCell(columnName, rowNum, (Boolean) value);
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return (columnName, rowNum, value) -> {
+                Number number = (Number) value;
+                if (CellWriters.isExact(number)) {
+                    writeNumberCell(columnName, rowNum, CellWriters.toExcelNumber(number), style);
+                } else {
+                    writeTextCell(columnName, rowNum, CellValueUtil.toText(column, value), -1);
+                }
+            };
+        }
+        if (format != null) {
+            //日期列
+            return (columnName, rowNum, value) -> {
+                double excelDate = CellWriters.toExcelDate(value);
+                if (excelDate >= 0) {
+                    writeNumberCell(columnName, rowNum, excelDate, style);
+                } else {
+                    //早于1900年，Excel无法表示
+                    writeTextCell(columnName, rowNum, CellValueUtil.toText(column, value), -1);
+                }
+            };
+        }
+        return (columnName, rowNum, value) -> writeTextCell(columnName, rowNum, CellValueUtil.toText(column, value), -1);
+    }
+
+    private void startSheet(Writer writer, List<ExcelColumnMapping> columns, String[] columnNames) throws IOException {
+        out = writer;
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+        if (!columns.isEmpty()) {
+            //与POI导出的setDefaultColumnWidth(20)一致
+            out.write("<cols><col min=\"1\" max=\"" + columns.size() + "\" width=\"20.7109375\" customWidth=\"1\"/></cols>");
+        }
+        out.write("<sheetData><row r=\"1\">");
+        for (int i = 0; i < columnNames.length; i++) {
+            ExcelColumnMapping column = columns.get(i);
+            writeTextCell(columnNames[i], "1", column.getTitle(), column.isNotNull() ? STYLE_TITLE_REQUIRED : STYLE_TITLE);
+        }
+        out.write("</row>");
+    }
+
+    private void endSheet(Sink sink) throws IOException {
+        out.write("</sheetData></worksheet>");
+        out = null;
+        sink.end();
+    }
+
+    /**
+     * 写出数值单元格
+     *
+     * @param style 样式下标，小于0时不设置
+     */
+    private void writeNumberCell(String columnName, String rowNum, double value, int style) throws IOException {
+        out.write("<c r=\"");
+        out.write(columnName);
+        out.write(rowNum);
+        if (style >= 0) {
+            out.write("\" s=\"");
+            out.write(Integer.toString(style));
+        }
+        out.write("\"><v>");
+        out.write(Double.toString(value));
+        out.write("</v></c>");
+    }
+
+    private void writeBooleanCell(String columnName, String rowNum, boolean value) throws IOException {
+        out.write("<c r=\"");
+        out.write(columnName);
+        out.write(rowNum);
+        out.write(value ? "\" t=\"b\"><v>1</v></c>" : "\" t=\"b\"><v>0</v></c>");
+    }
+
+    /**
+     * 写出文本单元格，空文本且无样式时省略
+     *
+     * @param style 样式下标，小于0时不设置
+     */
+    private void writeTextCell(String columnName, String rowNum, String text, int style) throws IOException {
+        if (text.isEmpty() && style < 0) {
+            return;
+        }
+        out.write("<c r=\"");
+        out.write(columnName);
+        out.write(rowNum);
+        if (style >= 0) {
+            out.write("\" s=\"");
+            out.write(Integer.toString(style));
+        }
+        if (sharedStrings != null) {
+            out.write("\" t=\"s\"><v>");
+            out.write(Integer.toString(sharedStrings.indexOf(text)));
+            out.write("</v></c>");
+        } else {
+            out.write("\" t=\"inlineStr\"><is>");
+            writeText(out, text);
+            out.write("</is></c>");
+        }
+    }
+
+    /**
+     * 写出t元素，首尾有空白时保留空白
+     */
+    static void writeText(Writer out, String text) throws IOException {
+        boolean preserve = !text.isEmpty()
+                && (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1)));
+        out.write(preserve ? "<t xml:space=\"preserve\">" : "<t>");
+        escape(out, text);
+        out.write("</t>");
+    }
+
+    /**
+     * 转义XML特殊字符，XML不允许的控制字符按OOXML规则写为_xHHHH_
+     */
+    private static void escape(Writer out, String text) throws IOException {
+        int length = text.length();
+        int last = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = text.charAt(i);
+            String replacement;
+            if (ch == '<') {
+                replacement = "&lt;";
+            } else if (ch == '>') {
+                replacement = "&gt;";
+            } else if (ch == '&') {
+                replacement = "&amp;";
+            } else if (ch == '"') {
+                replacement = "&quot;";
+            } else if (ch < 0x20 && ch != '\t' && ch != '\n' && ch != '\r') {
+                replacement = String.format("_x%04X_", (int) ch);
+            } else {
+                continue;
+            }
+            out.write(text, last, i - last);
+            out.write(replacement);
+            last = i + 1;
+        }
+        out.write(text, last, length - last);
+    }
+}
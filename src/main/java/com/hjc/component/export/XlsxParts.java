@@ -0,0 +1,183 @@
+package com.hjc.component.export;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * @author by hjc
+ * @Classname XlsxParts
+ * @Description 流式xlsx导出中除worksheet外的各部件内容
+ * @Date 2019/7/9 21:36
+ */
+final class XlsxParts {
+
+    static final String CONTENT_TYPES = "[Content_Types].xml";
+
+    static final String ROOT_RELS = "_rels/.rels";
+
+    static final String WORKBOOK = "xl/workbook.xml";
+
+    static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+
+    static final String STYLES = "xl/styles.xml";
+
+    static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+
+    /**
+     * 自定义格式的起始numFmtId
+     */
+    private static final int FIRST_CUSTOM_FORMAT_ID = 164;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private XlsxParts() {
+    }
+
+    /**
+     * @param index sheet序号，从1开始
+     * @return worksheet条目名
+     */
+    static String sheet(int index) {
+        return "xl/worksheets/sheet" + index + ".xml";
+    }
+
+    /**
+     * 校验sheet名合法且不与已有sheet重复（不区分大小写）
+     *
+     * @param sheetNames 已有sheet名
+     * @param name       新sheet名
+     */
+    static void checkSheetName(List<String> sheetNames, String name) {
+        WorkbookUtil.validateSheetName(name);
+        for (String sheetName : sheetNames) {
+            if (sheetName.equalsIgnoreCase(name)) {
+                throw new IllegalArgumentException("sheet名重复：" + name);
+            }
+        }
+    }
+
+    static String contentTypes(int sheetCount, boolean sharedStrings) {
+        StringBuilder buf = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        if (sharedStrings) {
+            buf.append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+        }
+        for (int i = 1; i <= sheetCount; i++) {
+            buf.append("<Override PartName=\"/").append(sheet(i))
+                    .append("\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return buf.append("</Types>").toString();
+    }
+
+    static String rootRels() {
+        return XML_HEADER
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>";
+    }
+
+    static String workbook(List<String> sheetNames) {
+        StringBuilder buf = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" ")
+                .append("xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            buf.append("<sheet name=\"");
+            appendEscaped(buf, sheetNames.get(i - 1));
+            buf.append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return buf.append("</sheets></workbook>").toString();
+    }
+
+    static String workbookRels(int sheetCount, boolean sharedStrings) {
+        StringBuilder buf = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+        for (int i = 1; i <= sheetCount; i++) {
+            buf.append("<Relationship Id=\"rId").append(i)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet")
+                    .append(i).append(".xml\"/>");
+        }
+        buf.append("<Relationship Id=\"rId").append(sheetCount + 1)
+                .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.xml\"/>");
+        if (sharedStrings) {
+            buf.append("<Relationship Id=\"rId").append(sheetCount + 2)
+                    .append("\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+        }
+        return buf.append("</Relationships>").toString();
+    }
+
+    /**
+     * 表头样式与POI导出的generateTitleStyle一致：宋体11号白色加粗、细边框、居中，浅蓝/红色填充；
+     * 之后依次为各数值、日期格式的样式
+     *
+     * @param formats 数值、日期格式，顺序与样式下标一致
+     */
+    static String styles(List<String> formats) {
+        StringBuilder numFmts = new StringBuilder();
+        StringBuilder formatXfs = new StringBuilder();
+        int custom = 0;
+        for (String format : formats) {
+            int id = BuiltinFormats.getBuiltinFormat(format);
+            if (id < 0) {
+                id = FIRST_CUSTOM_FORMAT_ID + custom++;
+                numFmts.append("<numFmt numFmtId=\"").append(id).append("\" formatCode=\"");
+                appendEscaped(numFmts, format);
+                numFmts.append("\"/>");
+            }
+            formatXfs.append("<xf numFmtId=\"").append(id).append("\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>");
+        }
+        return XML_HEADER
+                + "<styleSheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+                + (custom > 0 ? "<numFmts count=\"" + custom + "\">" + numFmts + "</numFmts>" : "")
+                + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+                + "<font><b/><sz val=\"11\"/><color indexed=\"9\"/><name val=\"宋体\"/></font></fonts>"
+                + "<fills count=\"4\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill>"
+                + "<fill><patternFill patternType=\"solid\"><fgColor indexed=\"48\"/></patternFill></fill>"
+                + "<fill><patternFill patternType=\"solid\"><fgColor indexed=\"10\"/></patternFill></fill></fills>"
+                + "<borders count=\"2\"><border><left/><right/><top/><bottom/><diagonal/></border>"
+                + "<border><left style=\"thin\"/><right style=\"thin\"/><top style=\"thin\"/><bottom style=\"thin\"/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"" + (3 + formats.size()) + "\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"2\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\"/></xf>"
+                + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"3\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyFill=\"1\" applyBorder=\"1\" applyAlignment=\"1\"><alignment horizontal=\"center\"/></xf>"
+                + formatXfs + "</cellXfs>"
+                + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+                + "</styleSheet>";
+    }
+
+    static void writeSharedStrings(Writer out, SharedStringTable table) throws IOException {
+        out.write(XML_HEADER);
+        out.write("<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"" + table.getRefs()
+                + "\" uniqueCount=\"" + table.getStrings().size() + "\">");
+        for (String text : table.getStrings()) {
+            out.write("<si>");
+            SheetRenderer.writeText(out, text);
+            out.write("</si>");
+        }
+        out.write("</sst>");
+    }
+
+    private static void appendEscaped(StringBuilder buf, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '<') {
+                buf.append("&lt;");
+            } else if (ch == '>') {
+                buf.append("&gt;");
+            } else if (ch == '&') {
+                buf.append("&amp;");
+            } else if (ch == '"') {
+                buf.append("&quot;");
+            } else {
+                buf.append(ch);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hjc.component.export;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * @author by hjc
+ * @Classname XlsxStreamWriter
+ * @Description 轻量xlsx写出器：不创建POI的Row/Cell，也不落临时文件，worksheet XML按行直接写入zip流；
+ * 列布局取自ExcelCell元数据，单元格类型、文本与POI导出一致，样式只包含表头两种及数值、日期格式
+ * @Date 2019/7/9 21:36
+ */
+public class XlsxStreamWriter implements Closeable {
+
+    private final ZipOutputStream zip;
+
+    private final Writer out;
+
+    private final List<String> sheetNames = new ArrayList<>();
+
+    /**
+     * 共享字符串表，未开启时为null
+     */
+    private final SharedStringTable sharedStrings;
+
+    /**
+     * 数值、日期格式对应的样式
+     */
+    private final CellFormatTable formats = new CellFormatTable();
+
+    private final SheetRenderer renderer;
+
+    private final SheetRenderer.Sink sink = new SheetRenderer.Sink() {
+        @Override
+        public Writer begin(String sheetName) throws IOException {
+            XlsxParts.checkSheetName(sheetNames, sheetName);
+            sheetNames.add(sheetName);
+            zip.putNextEntry(new ZipEntry(XlsxParts.sheet(sheetNames.size())));
+            return out;
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.flush();
+            zip.closeEntry();
+        }
+    };
+
+    private boolean closed;
+
+    /**
+     * @param out     输出流，close时一并关闭
+     * @param options 导出选项
+     */
+    public XlsxStreamWriter(OutputStream out, ExcelExportOptions options) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.zip.setLevel(options.getCompressionLevel());
+        //Writer只随条目flush，关闭由zip负责
+        this.out = new BufferedWriter(new OutputStreamWriter(new FilterOutputStream(zip) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                zip.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+            }
+        }, StandardCharsets.UTF_8), 1 << 16);
+        this.sharedStrings = options.isSharedStrings() ? new SharedStringTable() : null;
+        this.renderer = new SheetRenderer(options, sharedStrings, formats);
+    }
+
+    /**
+     * 写出一个数据源，超过每个sheet的最大行数时续写到“sheet名_2”等新sheet
+     *
+     * @param source 数据源
+     * @return 写出的数据行数
+     */
+    public long writeSheet(ExcelSheetSource<?> source) throws IOException {
+        return renderer.render(source, sink);
+    }
+
+    /**
+     * 写出workbook、样式、共享字符串等其余部件并结束zip
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeParts();
+            zip.finish();
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void writeParts() throws IOException {
+        int sheetCount = sheetNames.size();
+        if (sheetCount == 0) {
+            throw new IllegalStateException("没有可导出的sheet");
+        }
+        boolean sst = sharedStrings != null;
+        writePart(XlsxParts.CONTENT_TYPES, XlsxParts.contentTypes(sheetCount, sst));
+        writePart(XlsxParts.ROOT_RELS, XlsxParts.rootRels());
+        writePart(XlsxParts.WORKBOOK, XlsxParts.workbook(sheetNames));
+        writePart(XlsxParts.WORKBOOK_RELS, XlsxParts.workbookRels(sheetCount, sst));
+        writePart(XlsxParts.STYLES, XlsxParts.styles(formats.getFormats()));
+        if (sst) {
+            zip.putNextEntry(new ZipEntry(XlsxParts.SHARED_STRINGS));
+            XlsxParts.writeSharedStrings(out, sharedStrings);
+            out.flush();
+            zip.closeEntry();
+        }
+    }
+
+    private void writePart(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,258 @@
+package com.hjc.component.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * @author by hjc
+ * @Classname ZipAssembler
+ * @Description 将已压缩的条目数据拼接为zip：依次写出本地文件头及数据，最后写出中央目录；
+ * 条目大小在写出前已知，不需要数据描述符；大小、偏移超过4GB的条目及中央目录写为Zip64格式
+ * @Date 2019/7/9 21:36
+ */
+final class ZipAssembler {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+
+    private static final int CENTRAL_HEADER = 0x02014b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+
+    private static final int VERSION = 20;
+
+    /**
+     * 使用Zip64扩展时需要的版本
+     */
+    private static final int VERSION_ZIP64 = 45;
+
+    /**
+     * Zip64扩展字段的header id
+     */
+    private static final int ZIP64_EXTRA = 0x0001;
+
+    /**
+     * 文件名为UTF-8
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+
+    private static final int METHOD_DEFLATED = 8;
+
+    /**
+     * 32位字段的最大值，达到时字段写为该值，实际值写在Zip64扩展字段中
+     */
+    private static final long ZIP32_LIMIT = 0xFFFFFFFFL;
+
+    private static final int ZIP16_LIMIT = 0xFFFF;
+
+    private final OutputStream out;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final int dosTime;
+
+    private long offset;
+
+    ZipAssembler(OutputStream out) {
+        this.out = out;
+        this.dosTime = dosTime(LocalDateTime.now());
+    }
+
+    /**
+     * 写出已压缩的条目
+     *
+     * @param name 条目名
+     * @param part 压缩数据
+     */
+    void add(String name, DeflatedPart part) throws IOException {
+        Entry entry = begin(name, part.getCrc(), part.getSize(), part.getCompressedSize());
+        part.copyTo(out);
+        offset += entry.compressedSize;
+    }
+
+    /**
+     * 压缩并写出小部件
+     *
+     * @param name    条目名
+     * @param content 内容
+     * @param level   压缩级别
+     */
+    void add(String name, String content, int level) throws IOException {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        Deflater deflater = new Deflater(level, true);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 64);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                compressed.write(buf, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+        Entry entry = begin(name, crc.getValue(), data.length, compressed.size());
+        compressed.writeTo(out);
+        offset += entry.compressedSize;
+    }
+
+    /**
+     * 写出中央目录
+     */
+    void finish() throws IOException {
+        long start = offset;
+        for (Entry entry : entries) {
+            boolean zip64Size = entry.size >= ZIP32_LIMIT || entry.compressedSize >= ZIP32_LIMIT;
+            boolean zip64Offset = entry.offset >= ZIP32_LIMIT;
+            //Zip64扩展字段依次为原始大小、压缩大小（大小超限时两者都写）、本地文件头偏移
+            int extraLength = (zip64Size ? 16 : 0) + (zip64Offset ? 8 : 0);
+            int version = extraLength > 0 ? VERSION_ZIP64 : VERSION;
+            writeInt(CENTRAL_HEADER);
+            writeShort(version);
+            writeShort(version);
+            writeShort(FLAG_UTF8);
+            writeShort(METHOD_DEFLATED);
+            writeInt(dosTime);
+            writeInt((int) entry.crc);
+            writeInt((int) (zip64Size ? ZIP32_LIMIT : entry.compressedSize));
+            writeInt((int) (zip64Size ? ZIP32_LIMIT : entry.size));
+            writeShort(entry.name.length);
+            writeShort(extraLength > 0 ? extraLength + 4 : 0);
+            //comment、起始磁盘、内部属性、外部属性
+            writeShort(0);
+            writeShort(0);
+            writeShort(0);
+            writeInt(0);
+            writeInt((int) (zip64Offset ? ZIP32_LIMIT : entry.offset));
+            write(entry.name);
+            if (extraLength > 0) {
+                writeShort(ZIP64_EXTRA);
+                writeShort(extraLength);
+                if (zip64Size) {
+                    writeLong(entry.size);
+                    writeLong(entry.compressedSize);
+                }
+                if (zip64Offset) {
+                    writeLong(entry.offset);
+                }
+            }
+        }
+        long size = offset - start;
+        boolean zip64 = start >= ZIP32_LIMIT || size >= ZIP32_LIMIT || entries.size() >= ZIP16_LIMIT;
+        if (zip64) {
+            long end = offset;
+            writeInt(ZIP64_END_OF_CENTRAL_DIRECTORY);
+            //记录剩余部分的长度
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(entries.size());
+            writeLong(entries.size());
+            writeLong(size);
+            writeLong(start);
+            writeInt(ZIP64_LOCATOR);
+            writeInt(0);
+            writeLong(end);
+            writeInt(1);
+        }
+        writeInt(END_OF_CENTRAL_DIRECTORY);
+        writeShort(0);
+        writeShort(0);
+        writeShort(zip64 ? ZIP16_LIMIT : entries.size());
+        writeShort(zip64 ? ZIP16_LIMIT : entries.size());
+        writeInt((int) (zip64 ? ZIP32_LIMIT : size));
+        writeInt((int) (zip64 ? ZIP32_LIMIT : start));
+        writeShort(0);
+        out.flush();
+    }
+
+    private Entry begin(String name, long crc, long size, long compressedSize) throws IOException {
+        Entry entry = new Entry(name.getBytes(StandardCharsets.UTF_8), crc, size, compressedSize, offset);
+        entries.add(entry);
+        //本地文件头不含偏移，只在大小超限时写Zip64扩展字段
+        boolean zip64 = size >= ZIP32_LIMIT || compressedSize >= ZIP32_LIMIT;
+        writeInt(LOCAL_HEADER);
+        writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        writeShort(FLAG_UTF8);
+        writeShort(METHOD_DEFLATED);
+        writeInt(dosTime);
+        writeInt((int) crc);
+        writeInt((int) (zip64 ? ZIP32_LIMIT : compressedSize));
+        writeInt((int) (zip64 ? ZIP32_LIMIT : size));
+        writeShort(entry.name.length);
+        writeShort(zip64 ? 20 : 0);
+        write(entry.name);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA);
+            writeShort(16);
+            writeLong(size);
+            writeLong(compressedSize);
+        }
+        return entry;
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        offset += 2;
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeShort(value & 0xFFFF);
+        writeShort((value >>> 16) & 0xFFFF);
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt((int) value);
+        writeInt((int) (value >>> 32));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        offset += bytes.length;
+    }
+
+    /**
+     * MS-DOS格式的修改时间，高16位为日期
+     */
+    private static int dosTime(LocalDateTime time) {
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    private static final class Entry {
+
+        private final byte[] name;
+
+        private final long crc;
+
+        private final long size;
+
+        private final long compressedSize;
+
+        private final long offset;
+
+        Entry(byte[] name, long crc, long size, long compressedSize, long offset) {
+            this.name = name;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.hjc.component.sax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @author by hjc
+ * @Classname BatchingRecordListener
+ * @Description 将逐行推送的结果按批交给RecordBatchSink。
+ * 未指定executor时在解析线程上调用sink；指定executor时sink异步执行，同一时刻只有一个批次在处理，
+ * sink未处理完上一批时解析线程阻塞等待
+ * @Date 2019/7/9 21:36
+ */
+public class BatchingRecordListener<T> implements ExcelRecordListener<T>, AutoCloseable {
+
+    private final RecordBatchSink<T> sink;
+
+    private final int batchSize;
+
+    private final Executor executor;
+
+    /**
+     * 处理中的批次许可，保证sink串行、按序执行
+     */
+    private final Semaphore inFlight = new Semaphore(1);
+
+    private volatile Throwable failure;
+
+    private List<T> records;
+
+    private List<ExcelXlsxReader.InvalidRow> invalidRows;
+
+    public BatchingRecordListener(RecordBatchSink<T> sink, int batchSize) {
+        this(sink, batchSize, null);
+    }
+
+    public BatchingRecordListener(RecordBatchSink<T> sink, int batchSize, Executor executor) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize必须大于0");
+        }
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.executor = executor;
+        reset();
+    }
+
+    @Override
+    public boolean onRecord(int sheetIndex, String sheetName, int rowNum, T record) {
+        records.add(record);
+        flushIfFull(sheetIndex, sheetName);
+        return true;
+    }
+
+    @Override
+    public boolean onInvalidRow(int sheetIndex, String sheetName, int rowNum, ExcelXlsxReader.InvalidRow invalidRow) {
+        invalidRows.add(invalidRow);
+        flushIfFull(sheetIndex, sheetName);
+        return true;
+    }
+
+    @Override
+    public void onSheetEnd(int sheetIndex, String sheetName) {
+        flush(sheetIndex, sheetName);
+        dispatch(() -> sink.onSheetEnd(sheetIndex, sheetName));
+    }
+
+    /**
+     * 等待处理中的批次完成，sink抛出的异常在此重新抛出
+     */
+    @Override
+    public void close() {
+        inFlight.acquireUninterruptibly();
+        inFlight.release();
+        checkFailure();
+    }
+
+    private void flushIfFull(int sheetIndex, String sheetName) {
+        if (records.size() + invalidRows.size() >= batchSize) {
+            flush(sheetIndex, sheetName);
+        }
+    }
+
+    private void flush(int sheetIndex, String sheetName) {
+        if (records.isEmpty() && invalidRows.isEmpty()) {
+            return;
+        }
+        List<T> batch = records;
+        List<ExcelXlsxReader.InvalidRow> invalidBatch = invalidRows;
+        reset();
+        dispatch(() -> sink.accept(sheetIndex, sheetName, batch, invalidBatch));
+    }
+
+    private void dispatch(Runnable task) {
+        checkFailure();
+        if (executor == null) {
+            task.run();
+            return;
+        }
+        inFlight.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    failure = e;
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new IllegalStateException("批量处理失败", failure);
+        }
+    }
+
+    private void reset() {
+        records = new ArrayList<>(batchSize);
+        invalidRows = new ArrayList<>();
+    }
+}
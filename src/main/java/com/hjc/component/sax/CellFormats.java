@@ -0,0 +1,96 @@
+package com.hjc.component.sax;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+
+/**
+ * @author by hjc
+ * @Classname CellFormats
+ * @Description 按样式索引预先取出的数字格式：格式索引、格式串及是否日期，构建后不可变，可在并行解析的各sheet间共享；
+ * 解析时不再访问StylesTable，避免每个单元格创建XSSFCellStyle并在共享文档的锁上串行
+ * @Date 2019/7/9 21:36
+ */
+final class CellFormats {
+
+    /**
+     * 日期单元格统一的格式串
+     */
+    static final String DATE_FORMAT = "yyyy-MM-dd hh:mm:ss";
+
+    private final short[] formatIndexes;
+
+    private final String[] formatStrings;
+
+    private final boolean[] dates;
+
+    /**
+     * 样式未设置格式串，格式串取内置格式
+     */
+    private final boolean[] unformatted;
+
+    private CellFormats(int size) {
+        this.formatIndexes = new short[size];
+        this.formatStrings = new String[size];
+        this.dates = new boolean[size];
+        this.unformatted = new boolean[size];
+    }
+
+    /**
+     * 读取样式表中全部样式的数字格式
+     *
+     * @param stylesTable 样式表
+     */
+    static CellFormats of(StylesTable stylesTable) {
+        int size = stylesTable != null ? stylesTable.getNumCellStyles() : 0;
+        CellFormats formats = new CellFormats(size);
+        for (int i = 0; i < size; i++) {
+            XSSFCellStyle style = stylesTable.getStyleAt(i);
+            short formatIndex = style.getDataFormat();
+            String formatString = style.getDataFormatString();
+            if (formatString == null) {
+                formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+                formats.unformatted[i] = true;
+            } else if (formatString.contains("m/d/yy")) {
+                formatString = DATE_FORMAT;
+                formats.dates[i] = true;
+            }
+            formats.formatIndexes[i] = formatIndex;
+            formats.formatStrings[i] = formatString;
+        }
+        return formats;
+    }
+
+    /**
+     * @param style 样式索引
+     * @return 样式表中是否有该样式
+     */
+    boolean contains(int style) {
+        return style >= 0 && style < formatIndexes.length;
+    }
+
+    short getFormatIndex(int style) {
+        return formatIndexes[style];
+    }
+
+    /**
+     * @return 格式串，样式未设置格式时为内置格式
+     */
+    String getFormatString(int style) {
+        return formatStrings[style];
+    }
+
+    /**
+     * @return 是否日期格式，为true时格式串为{@link #DATE_FORMAT}
+     */
+    boolean isDate(int style) {
+        return dates[style];
+    }
+
+    /**
+     * @return 样式未设置格式串
+     */
+    boolean isUnformatted(int style) {
+        return unformatted[style];
+    }
+}
@@ -0,0 +1,46 @@
+package com.hjc.component.sax;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname CollectingRecordListener
+ * @Description 将推送的行按类名收集，用于一次性返回ExcelConvertResult的接口
+ * @Date 2019/7/9 21:36
+ */
+class CollectingRecordListener implements ExcelRecordListener<Object> {
+
+    /**
+     * 每个sheet对应的目标类
+     */
+    private final List<Class> classList;
+
+    private final Map<String, List<Object>> result = Maps.newHashMap();
+
+    private final Map<String, List<ExcelXlsxReader.InvalidRow>> unValidRows = Maps.newHashMap();
+
+    CollectingRecordListener(List<Class> classList) {
+        this.classList = classList;
+    }
+
+    @Override
+    public boolean onRecord(int sheetIndex, String sheetName, int rowNum, Object record) {
+        result.computeIfAbsent(classList.get(sheetIndex).getName(), k -> Lists.newArrayList()).add(record);
+        return true;
+    }
+
+    @Override
+    public boolean onInvalidRow(int sheetIndex, String sheetName, int rowNum, ExcelXlsxReader.InvalidRow invalidRow) {
+        unValidRows.computeIfAbsent(classList.get(sheetIndex).getName(), k -> Lists.newArrayList()).add(invalidRow);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    ExcelXlsxReader.ExcelConvertResult<Object> getResult() {
+        return new ExcelXlsxReader.ExcelConvertResult(result, unValidRows);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hjc.component.sax;
+
+import lombok.Data;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @author by hjc
+ * @Classname ExcelReadOptions
+ * @Description xlsx读取选项
+ * @Date 2019/7/9 21:36
+ */
+@Data
+public class ExcelReadOptions {
+
+    /**
+     * 转换/校验线程池，不为空时开启流水线模式：
+     * SAX线程只负责解析并投递行快照，转换在该线程池上并行执行，再按行号顺序交给接收方
+     */
+    private Executor convertExecutor;
+
+    /**
+     * 流水线模式下已投递但尚未交付的最大行数，达到后SAX线程阻塞
+     */
+    private int pipelineCapacity = 4096;
+
+    /**
+     * sharedStrings.xml超过该字节数时改用磁盘映射的共享字符串表，小于0时始终使用POI内存表
+     */
+    private long sharedStringsMappingThreshold = 64L * 1024 * 1024;
+
+    /**
+     * 磁盘共享字符串表的已解码字符串缓存条数
+     */
+    private int sharedStringsCacheSize = 4096;
+}
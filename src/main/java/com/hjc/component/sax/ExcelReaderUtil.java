@@ -2,23 +2,25 @@ package com.hjc.component.sax;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.hjc.component.annotation.ExcelCell;
+import com.hjc.component.binding.ExcelClassMapping;
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
 import com.hjc.component.service.BaseDataTypeHandleCommand;
 import com.hjc.component.service.BaseDataTypeHandleCommandContext;
+import com.hjc.component.util.DateFormatUtil;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.POIXMLDocument;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * @author by hjc
@@ -43,47 +45,104 @@ public class ExcelReaderUtil {
      * @param sheetIndex
      * @param curRow
      * @param cellList
+     * @param unValidRows 未通过校验的行
      */
-    public <T> void sendRows(String filePath, String sheetName, int sheetIndex, int curRow, Map<Integer,String> cellList,
+    public <T> void sendRows(String filePath, String sheetName, int sheetIndex, int curRow, RowBuffer cellList,
                                 Class<T> clazz,Map<String, List<T>> result,Map<String, List<ExcelXlsxReader.InvalidRow>> unValidRows) {
         if (!result.containsKey(clazz.getName())) {
             result.put(clazz.getName(), Lists.newArrayList());
         }
-        T instance = null;
         Map<String, String> errMsg = Maps.newHashMap();
+        T instance = convertRow(clazz, cellList, errMsg);
+        if (errMsg.size() > 0) {
+            //与xlsx解析一致，未通过校验的行保留原始文本和错误信息
+            unValidRows.computeIfAbsent(clazz.getName(), k -> Lists.newArrayList())
+                    .add(new ExcelXlsxReader.InvalidRow(clazz, sheetIndex, sheetName, curRow, rawValues(clazz, cellList), errMsg));
+        } else if (instance != null) {
+            result.get(clazz.getName()).add(instance);
+        }
+    }
+
+    /**
+     * 将一行单元格转换为实例
+     * @param clazz    目标类
+     * @param cellList 按列索引存放的单元格值
+     * @param errMsg   转换错误信息
+     * @return 实例，创建失败时为null
+     */
+    public <T> T convertRow(Class<T> clazz, RowBuffer cellList, Map<String, String> errMsg) {
         try {
-            instance = clazz.newInstance();
-            Field[] fields = instance.getClass().getDeclaredFields();
-            for (Field field : fields) {
-                field.setAccessible(true);
-                ExcelCell ant = field.getAnnotation(ExcelCell.class);
-                String title = ant.title();
-                Integer order = ant.order();
-                String value = cellList.get(order);
-                String pattern = ant.pattern();
-                Pattern patternTemp = Pattern.compile(pattern);
-                Object formatValue = null;
-                if (ant.notNull() && StringUtils.isBlank(value)) {
-                    //非空校验
-                    //errMsg.put(title, "不能为空");
+            ExcelClassMapping mapping = ExcelClassMapping.of(clazz);
+            RecordFactory<T> factory = mapping.getFactory();
+            Object state = factory.newState();
+            for (ExcelColumnMapping column : mapping.getColumns()) {
+                String title = column.getTitle();
+                //通过策略模式转换不同类型的值
+                BaseDataTypeHandleCommand execute = column.getHandler(context);
+                if (cellList.isNumber(column.getOrder())) {
+                    //原始数值直接转换为字段类型
+                    execute.writeNumber(factory, state, column, cellList.getNumber(column.getOrder()), errMsg);
+                    continue;
                 }
-                if (ant.notNull() && !"".equals(pattern)) {
-                    //正则校验
-                    if (!patternTemp.matcher(value).matches()) {
-                        //errMsg.put(title, "格式不合法：" + pattern);
-                    }
+                String value = cellList.get(column.getOrder());
+                //非空、格式、长度、边界值校验
+                String error = column.validate(value == null ? "" : value.trim());
+                if (error != null) {
+                    errMsg.put(title, error);
                 }
-                //通过策略模式转换不同类型的值
-                Class fclazz = field.getType();
-                BaseDataTypeHandleCommand execute = context.getInstance(fclazz.getName());
-                formatValue = execute.process(title, value, errMsg, ant.format());
-                field.set(instance, formatValue);
+                execute.write(factory, state, column, value, errMsg);
             }
-            List<T> resultList = result.get(clazz.getName());
-            resultList.add(instance);
+            return factory.build(state);
         } catch (Exception ex) {
             log.error("ex,{}",ex);
+            return null;
+        }
+    }
+
+    /**
+     * 取一行中各列的原始文本，供未通过校验的行保存；原始数值按列类型还原为文本
+     * @param clazz    目标类
+     * @param cellList 按列索引存放的单元格值
+     * @return 按列位置存放的原始文本，单元格不存在时为null
+     */
+    public String[] rawValues(Class<?> clazz, RowBuffer cellList) {
+        List<ExcelColumnMapping> columns = ExcelClassMapping.of(clazz).getColumns();
+        String[] values = new String[columns.size()];
+        for (ExcelColumnMapping column : columns) {
+            int order = column.getOrder();
+            if (!cellList.isNumber(order)) {
+                values[column.getIndex()] = cellList.get(order);
+                continue;
+            }
+            double number = cellList.getNumber(order);
+            if (column.getHandler(context).supportsNumber(true)) {
+                //日期列的原始数值为Excel日期序列值
+                values[column.getIndex()] = DateFormatUtil.format(DateUtil.getJavaDate(number), column.getFormat());
+            } else if ((column.getType() == Boolean.class || column.getType() == boolean.class) && (number == 0 || number == 1)) {
+                values[column.getIndex()] = String.valueOf(number == 1);
+            } else {
+                values[column.getIndex()] = NumberToTextConverter.toText(number);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 按列索引列出可直接接收原始数值的列，供解析时跳过格式化
+     * @param clazz 目标类
+     * @param date  单元格是否为日期格式
+     * @return 【列索引->是否支持】
+     */
+    public boolean[] numberColumns(Class<?> clazz, boolean date) {
+        ExcelClassMapping mapping = ExcelClassMapping.of(clazz);
+        boolean[] columns = new boolean[mapping.getWidth()];
+        for (ExcelColumnMapping column : mapping.getColumns()) {
+            if (column.getOrder() >= 0) {
+                //需要文本的校验仍走字符串转换
+                columns[column.getOrder()] = !column.hasTextValidators() && column.getHandler(context).supportsNumber(date);
+            }
         }
+        return columns;
     }
 
     public void readExcel(InputStream inputStream,List<Class> classList) {
@@ -95,7 +154,7 @@ public class ExcelReaderUtil {
                 inputStream = new PushbackInputStream(inputStream, 8);
             }
             if (POIFSFileSystem.hasPOIFSHeader(inputStream)) {
-                ExcelXlsReader excelXls = new ExcelXlsReader();
+                ExcelXlsReader excelXls = new ExcelXlsReader(this, classList);
                 totalRows = excelXls.process(inputStream);
                 log.info("2003版本及以下");
             } else if (POIXMLDocument.hasOOXMLHeader(inputStream)) {
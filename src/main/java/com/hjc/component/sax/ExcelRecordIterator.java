@@ -0,0 +1,160 @@
+package com.hjc.component.sax;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @author by hjc
+ * @Classname ExcelRecordIterator
+ * @Description 拉取式导入结果：解析线程将行写入有界队列，调用方逐条取出，
+ * 队列满时解析线程阻塞，内存占用与文件行数无关；提前结束时调用close停止解析。
+ * 未通过校验的行与实例按行号顺序进入同一队列，在调用方线程上交给invalidRowHandler，不在迭代器中累积
+ * @Date 2019/7/9 21:36
+ */
+public class ExcelRecordIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * 解析结束标记
+     */
+    private static final Object END = new Object();
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+
+    private final Consumer<? super ExcelXlsxReader.InvalidRow> invalidRowHandler;
+
+    private volatile boolean closed;
+
+    private volatile Throwable failure;
+
+    private Object next;
+
+    private boolean finished;
+
+    /**
+     * @param capacity          缓冲的最大行数
+     * @param invalidRowHandler 未通过校验行的接收方，抛出异常时结束读取
+     */
+    ExcelRecordIterator(int capacity, Consumer<? super ExcelXlsxReader.InvalidRow> invalidRowHandler) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.invalidRowHandler = Objects.requireNonNull(invalidRowHandler, "invalidRowHandler");
+    }
+
+    /**
+     * 解析线程使用的接收方
+     */
+    ExcelRecordListener<Object> listener() {
+        return new ExcelRecordListener<Object>() {
+            @Override
+            public boolean onRecord(int sheetIndex, String sheetName, int rowNum, Object record) {
+                return offer(record);
+            }
+
+            @Override
+            public boolean onInvalidRow(int sheetIndex, String sheetName, int rowNum, ExcelXlsxReader.InvalidRow invalidRow) {
+                return offer(invalidRow);
+            }
+        };
+    }
+
+    /**
+     * 解析线程结束时调用
+     *
+     * @param error 解析异常，正常结束为null
+     */
+    void finish(Throwable error) {
+        failure = error;
+        //结束标记必须送达，解析线程被中断时也继续等待队列空位，最后恢复中断状态
+        boolean interrupted = Thread.interrupted();
+        while (!closed) {
+            try {
+                if (queue.offer(END, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(Object element) {
+        try {
+            while (!closed) {
+                if (queue.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (finished || closed) {
+            return false;
+        }
+        Object element = take();
+        while (element instanceof ExcelXlsxReader.InvalidRow) {
+            ExcelXlsxReader.InvalidRow invalidRow = (ExcelXlsxReader.InvalidRow) element;
+            try {
+                invalidRowHandler.accept(invalidRow);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            element = take();
+        }
+        if (element == END) {
+            finished = true;
+            if (failure != null) {
+                throw new IllegalStateException("excel解析失败", failure);
+            }
+            return false;
+        }
+        next = element;
+        return true;
+    }
+
+    private Object take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("读取excel被中断", e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object element = next;
+        next = null;
+        return (T) element;
+    }
+
+    /**
+     * 停止解析并释放队列
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+}
@@ -0,0 +1,44 @@
+package com.hjc.component.sax;
+
+/**
+ * @author by hjc
+ * @Classname ExcelRecordListener
+ * @Description 逐行推送导入结果，解析过程中不累积数据
+ * @Date 2019/7/9 21:36
+ */
+@FunctionalInterface
+public interface ExcelRecordListener<T> {
+
+    /**
+     * 每转换出一行即回调
+     *
+     * @param sheetIndex 工作表索引
+     * @param sheetName  sheet名
+     * @param rowNum     行号（从1开始，含表头）
+     * @param record     实例
+     * @return 是否继续解析，返回false时立即停止
+     */
+    boolean onRecord(int sheetIndex, String sheetName, int rowNum, T record);
+
+    /**
+     * 未通过校验的行
+     *
+     * @param sheetIndex 工作表索引
+     * @param sheetName  sheet名
+     * @param rowNum     行号（从1开始，含表头）
+     * @param invalidRow 未通过校验行及错误信息
+     * @return 是否继续解析，返回false时立即停止
+     */
+    default boolean onInvalidRow(int sheetIndex, String sheetName, int rowNum, ExcelXlsxReader.InvalidRow invalidRow) {
+        return true;
+    }
+
+    /**
+     * sheet解析结束
+     *
+     * @param sheetIndex 工作表索引
+     * @param sheetName  sheet名
+     */
+    default void onSheetEnd(int sheetIndex, String sheetName) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.hjc.component.sax;
 
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.hssf.eventusermodel.*;
 import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
@@ -10,10 +9,15 @@ import org.apache.poi.hssf.record.*;
 import org.apache.poi.hssf.usermodel.HSSFDataFormatter;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hjc.component.binding.ExcelClassMapping;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -85,8 +89,28 @@ public class ExcelXlsReader implements HSSFListener {
     //当前行
     private int curRow = 0;
 
-    //存储一行记录所有单元格的容器
-    private Map<Integer,String> cellList = Maps.newHashMap();
+    //存储一行记录所有单元格的容器，每个sheet开始时按目标类的最大列索引预留宽度
+    private RowBuffer cellList = new RowBuffer(16);
+
+    /**
+     * 每个sheet对应的目标类
+     */
+    private final List<Class> clazzList;
+
+    /**
+     * 当前sheet的目标类，为null时跳过该sheet
+     */
+    private Class clazz;
+
+    /**
+     * 转换结果
+     */
+    private final Map<String, List<Object>> records = Maps.newHashMap();
+
+    /**
+     * 未通过校验的行
+     */
+    private final Map<String, List<ExcelXlsxReader.InvalidRow>> invalidRows = Maps.newHashMap();
 
     /**
      * 判断整行是否为空行的标记
@@ -99,6 +123,33 @@ public class ExcelXlsReader implements HSSFListener {
     @Autowired
     ExcelReaderUtil excelReaderUtil;
 
+    public ExcelXlsReader() {
+        this(null, Collections.emptyList());
+    }
+
+    /**
+     * @param excelReaderUtil 行转换工具
+     * @param clazzList       每个sheet对应的目标类，为null的sheet跳过
+     */
+    public ExcelXlsReader(ExcelReaderUtil excelReaderUtil, List<Class> clazzList) {
+        this.excelReaderUtil = excelReaderUtil;
+        this.clazzList = Lists.newArrayList(clazzList);
+    }
+
+    /**
+     * @return 转换结果【类名->实例】
+     */
+    public Map<String, List<Object>> getRecords() {
+        return records;
+    }
+
+    /**
+     * @return 未通过校验的行【类名->行】
+     */
+    public Map<String, List<ExcelXlsxReader.InvalidRow>> getInvalidRows() {
+        return invalidRows;
+    }
+
     /**
      * 遍历excel下所有的sheet
      *
@@ -152,6 +203,11 @@ public class ExcelXlsReader implements HSSFListener {
                         orderedBSRs = BoundSheetRecord.orderByBofPosition(boundSheetRecords);
                     }
                     sheetName = orderedBSRs[sheetIndex].getSheetname();
+                    clazz = sheetIndex < clazzList.size() ? clazzList.get(sheetIndex) : null;
+                    if (clazz != null) {
+                        //单元格按order存放，order可能不连续，按最大order预留
+                        cellList.reserve(ExcelClassMapping.of(clazz).getWidth());
+                    }
                     sheetIndex++;
                 }
                 break;
@@ -163,14 +219,14 @@ public class ExcelXlsReader implements HSSFListener {
                 thisRow = brec.getRow();
                 thisColumn = brec.getColumn();
                 thisStr = "";
-                cellList.put(thisColumn, thisStr);
+                cellList.set(thisColumn, thisStr);
                 break;
             case BoolErrRecord.sid: //单元格为布尔类型
                 BoolErrRecord berec = (BoolErrRecord) record;
                 thisRow = berec.getRow();
                 thisColumn = berec.getColumn();
                 thisStr = berec.getBooleanValue() + "";
-                cellList.put(thisColumn, thisStr);
+                cellList.set(thisColumn, thisStr);
                 checkRowIsNull(thisStr);  //如果里面某个单元格含有值，则标识该行不为空行
                 break;
             case FormulaRecord.sid://单元格为公式类型
@@ -188,7 +244,7 @@ public class ExcelXlsReader implements HSSFListener {
                 } else {
                     thisStr = '"' + HSSFFormulaParser.toFormulaString(stubWorkbook, frec.getParsedExpression()) + '"';
                 }
-                cellList.put(thisColumn, thisStr);
+                cellList.set(thisColumn, thisStr);
                 checkRowIsNull(thisStr);  //如果里面某个单元格含有值，则标识该行不为空行
                 break;
             case StringRecord.sid: //单元格中公式的字符串
@@ -206,7 +262,7 @@ public class ExcelXlsReader implements HSSFListener {
                 thisColumn = lrec.getColumn();
                 value = lrec.getValue().trim();
                 value = value.equals("") ? "" : value;
-                cellList.put(thisColumn, value);
+                cellList.set(thisColumn, value);
                 checkRowIsNull(value);  //如果里面某个单元格含有值，则标识该行不为空行
                 break;
             case LabelSSTRecord.sid: //单元格为字符串类型
@@ -214,11 +270,11 @@ public class ExcelXlsReader implements HSSFListener {
                 curRow = thisRow = lsrec.getRow();
                 thisColumn = lsrec.getColumn();
                 if (sstRecord == null) {
-                    cellList.put(thisColumn, "");
+                    cellList.set(thisColumn, "");
                 } else {
                     value = sstRecord.getString(lsrec.getSSTIndex()).toString().trim();
                     value = value.equals("") ? "" : value;
-                    cellList.put(thisColumn, value);
+                    cellList.set(thisColumn, value);
                     checkRowIsNull(value);  //如果里面某个单元格含有值，则标识该行不为空行
                 }
                 break;
@@ -241,7 +297,7 @@ public class ExcelXlsReader implements HSSFListener {
 
                 value = value.equals("") ? "" : value;
                 //向容器加入列值
-                cellList.put(thisColumn, value);
+                cellList.set(thisColumn, value);
                 checkRowIsNull(value);  //如果里面某个单元格含有值，则标识该行不为空行
                 break;
             default:
@@ -258,7 +314,7 @@ public class ExcelXlsReader implements HSSFListener {
             MissingCellDummyRecord mc = (MissingCellDummyRecord) record;
             curRow = thisRow = mc.getRow();
             thisColumn = mc.getColumn();
-            cellList.put(thisColumn, "");
+            cellList.set(thisColumn, "");
         }
 
         //更新行和列的值
@@ -277,8 +333,8 @@ public class ExcelXlsReader implements HSSFListener {
             }
             lastColumnNumber = -1;
 
-            if (flag&&curRow!=0) { //该行不为空行且该行不是第一行，发送（第一行为列名，不需要）
-                excelReaderUtil.sendRows(filePath, sheetName, sheetIndex, curRow + 1, cellList,null,null,null); //每行结束时，调用sendRows()方法
+            if (flag && curRow != 0 && clazz != null) { //该行不为空行且该行不是第一行，发送（第一行为列名，不需要）
+                excelReaderUtil.sendRows(filePath, sheetName, sheetIndex - 1, curRow + 1, cellList, clazz, records, invalidRows); //每行结束时，调用sendRows()方法
                 totalRows++;
             }
             //清空容器
@@ -2,31 +2,31 @@ package com.hjc.component.sax;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.hjc.component.binding.ExcelInvalidRow;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.ss.usermodel.BuiltinFormats;
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.model.SharedStringsTable;
-import org.apache.poi.xssf.model.StylesTable;
-import org.apache.poi.xssf.usermodel.XSSFCellStyle;
-import org.apache.poi.xssf.usermodel.XSSFRichTextString;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
-import org.xml.sax.helpers.DefaultHandler;
-import org.xml.sax.helpers.XMLReaderFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author hjc
@@ -40,435 +40,418 @@ import java.util.stream.Collectors;
  **/
 @Component
 @Slf4j
-public class ExcelXlsxReader extends DefaultHandler {
+public class ExcelXlsxReader {
 
     @Autowired
     ExcelReaderUtil excelReaderUtil;
 
     /**
-     * 单元格中的数据可能的数据类型
+     * 拉取式读取时默认的缓冲行数
      */
-    enum CellDataType {
-        BOOL, ERROR, FORMULA, INLINESTR, SSTINDEX, NUMBER, DATE, NULL
-    }
-
-    /**
-     * 共享字符串表
-     */
-    private SharedStringsTable sst;
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
 
-    /**
-     * 上一次的索引值
-     */
-    private String lastIndex;
+    private static final AtomicInteger READER_THREAD_COUNT = new AtomicInteger();
 
     /**
-     * 文件的绝对路径
+     * 未指定invalidRowHandler的Stream、迭代器遇到未通过校验的行时结束
      */
-    private String filePath = "";
+    private static final Consumer<InvalidRow> FAIL_ON_INVALID_ROW = invalidRow -> {
+        throw new IllegalStateException("sheet[" + invalidRow.getSheetName() + "]第" + invalidRow.getRowNum()
+                + "行未通过校验：" + invalidRow.getFormatErrorMsg());
+    };
 
     /**
-     * 工作表索引
-     */
-    private int sheetIndex = 0;
-
-    /**
-     * sheet名
-     */
-    private String sheetName = "";
-
-    /**
-     * 总行数
+     * 遍历工作簿中所有的电子表格
+     * 每次调用使用独立的解析会话，可并发调用
+     *
+     * @param inputStream
+     * @throws Exception
      */
-    private int totalRows=0;
+    public <T> ExcelConvertResult process(InputStream inputStream, List<Class> clazzList) {
+        return process(inputStream, clazzList, null);
+    }
 
     /**
-     * 一行内cell集合
+     * 遍历工作簿中所有的电子表格
+     * executor不为空时各sheet在executor上并发解析，共享字符串表及样式表只读共享，
+     * 结果按sheet顺序合并，与顺序解析一致；任一sheet解析失败时抛出第一个失败，不返回部分结果
+     *
+     * @param inputStream
+     * @param clazzList   每个sheet对应的目标类
+     * @param executor    sheet解析线程池，为空时在当前线程依次解析
      */
-    private Map<Integer,String> cellList = Maps.newHashMap();
+    public <T> ExcelConvertResult process(InputStream inputStream, List<Class> clazzList, Executor executor) {
+        List<Class> classList = Lists.newArrayList(clazzList);
+        List<CollectingRecordListener> listeners = Lists.newArrayList();
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(inputStream);
+            if (executor == null) {
+                CollectingRecordListener listener = new CollectingRecordListener(classList);
+                listeners.add(listener);
+                parse(pkg, classList, listener, new ExcelReadOptions());
+                return merge(listeners);
+            }
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            //各sheet共享预先取出的数字格式，不共享StylesTable
+            CellFormats cellFormats = CellFormats.of(xssfReader.getStylesTable());
+            try (SharedStrings sst = SharedStrings.open(pkg, new ExcelReadOptions())) {
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+                List<CompletableFuture<CollectingRecordListener>> futures = Lists.newArrayList();
+                int sheetIndex = 0;
+                while (sheets.hasNext() && sheetIndex < classList.size()) {
+                    InputStream sheet = sheets.next(); //sheets.next()和sheets.getSheetName()不能换位置，否则sheetName报错
+                    String sheetName = sheets.getSheetName();
+                    int index = sheetIndex++;
+                    CollectingRecordListener listener = new CollectingRecordListener(classList);
+                    XlsxParseSession session = new XlsxParseSession(excelReaderUtil, sst, cellFormats, listener);
+                    futures.add(CompletableFuture.supplyAsync(() -> {
+                        try (InputStream in = sheet) {
+                            session.parseSheet(index, sheetName, classList.get(index), in);
+                        } catch (SAXException | IOException e) {
+                            throw new IllegalStateException("sheet解析失败：" + sheetName, e);
+                        }
+                        return listener;
+                    }, executor));
+                }
+                //等待全部sheet结束后再关闭共享字符串表，有失败时抛出第一个失败
+                Throwable failure = null;
+                for (CompletableFuture<CollectingRecordListener> future : futures) {
+                    try {
+                        listeners.add(future.join());
+                    } catch (CompletionException ex) {
+                        if (failure == null) {
+                            failure = ex.getCause();
+                        } else {
+                            failure.addSuppressed(ex.getCause());
+                        }
+                    }
+                }
+                if (failure != null) {
+                    throw failure instanceof Exception ? (Exception) failure : new IllegalStateException(failure);
+                }
+            }
+        } catch (Exception ex) {
+            log.error("Excel parse exception:{}", ex);
+            throw new IllegalStateException("excel解析失败", ex);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
+        return merge(listeners);
+    }
 
     /**
-     * 判断整行是否为空行的标记
+     * 推送式读取：每转换出一行即回调listener，不累积结果，listener返回false时提前结束
+     *
+     * @param inputStream
+     * @param clazzList   每个sheet对应的目标类，为null的sheet跳过
+     * @param listener    行接收方
      */
-    private boolean flag = false;
+    public void read(InputStream inputStream, List<Class> clazzList, ExcelRecordListener<Object> listener) {
+        read(inputStream, clazzList, listener, new ExcelReadOptions());
+    }
 
     /**
-     * 当前行
+     * 推送式读取，按options开启解析/转换流水线
+     *
+     * @param inputStream
+     * @param clazzList   每个sheet对应的目标类，为null的sheet跳过
+     * @param listener    行接收方，流水线模式下由收集线程按行号顺序调用
+     * @param options     读取选项
      */
-    private int curRow = 1;
+    public void read(InputStream inputStream, List<Class> clazzList, ExcelRecordListener<Object> listener, ExcelReadOptions options) {
+        read(() -> OPCPackage.open(inputStream), clazzList, listener, options);
+    }
 
     /**
-     * 当前列
+     * 推送式读取文件，按需读取zip条目，内存占用不随文件大小增长
+     *
+     * @param file      xlsx文件
+     * @param clazzList 每个sheet对应的目标类，为null的sheet跳过
+     * @param listener  行接收方
      */
-    private int curCol = 0;
+    public void read(File file, List<Class> clazzList, ExcelRecordListener<Object> listener) {
+        read(file, clazzList, listener, new ExcelReadOptions());
+    }
 
     /**
-     * T元素标识
+     * 推送式读取文件，按options开启解析/转换流水线
+     *
+     * @param file      xlsx文件
+     * @param clazzList 每个sheet对应的目标类，为null的sheet跳过
+     * @param listener  行接收方，流水线模式下由收集线程按行号顺序调用
+     * @param options   读取选项
      */
-    private boolean isTElement;
+    public void read(File file, List<Class> clazzList, ExcelRecordListener<Object> listener, ExcelReadOptions options) {
+        read(() -> OPCPackage.open(file.getPath(), PackageAccess.READ), clazzList, listener, options);
+    }
 
     /**
-     * 异常信息，如果为空则表示没有异常
+     * 分批读取：每batchSize行（含未通过校验的行）交给sink一次，sheet结束时交付剩余行
+     *
+     * @param inputStream
+     * @param clazzList   每个sheet对应的目标类，为null的sheet跳过
+     * @param sink        批次接收方
+     * @param batchSize   每批行数
+     * @param executor    sink执行线程池，为空时在解析线程上同步调用；不为空时解析与sink并行，sink繁忙时解析阻塞
      */
-    private String exceptionMessage;
+    public void read(InputStream inputStream, List<Class> clazzList, RecordBatchSink<Object> sink, int batchSize, Executor executor) {
+        try (BatchingRecordListener<Object> listener = new BatchingRecordListener<>(sink, batchSize, executor)) {
+            read(inputStream, clazzList, listener);
+        }
+    }
 
     /**
-     * 单元格数据类型，默认为字符串类型
+     * 分批读取文件
+     *
+     * @param file      xlsx文件
+     * @param clazzList 每个sheet对应的目标类，为null的sheet跳过
+     * @param sink      批次接收方
+     * @param batchSize 每批行数
+     * @param executor  sink执行线程池，为空时在解析线程上同步调用；不为空时解析与sink并行，sink繁忙时解析阻塞
      */
-    private CellDataType nextDataType = CellDataType.SSTINDEX;
-
-    private final DataFormatter formatter = new DataFormatter();
+    public void read(File file, List<Class> clazzList, RecordBatchSink<Object> sink, int batchSize, Executor executor) {
+        try (BatchingRecordListener<Object> listener = new BatchingRecordListener<>(sink, batchSize, executor)) {
+            read(file, clazzList, listener);
+        }
+    }
 
     /**
-     * 单元格日期格式的索引
+     * 拉取式读取单个sheet，返回的Stream关闭时停止解析；遇到未通过校验的行时抛出IllegalStateException
+     *
+     * @param inputStream
+     * @param clazz       目标类
+     * @param sheetIndex  工作表索引
      */
-    private short formatIndex;
+    public <T> Stream<T> stream(InputStream inputStream, Class<T> clazz, int sheetIndex) {
+        return stream(inputStream, clazz, sheetIndex, FAIL_ON_INVALID_ROW);
+    }
 
     /**
-     * 日期格式字符串
+     * 拉取式读取单个sheet，返回的Stream关闭时停止解析
+     *
+     * @param inputStream
+     * @param clazz             目标类
+     * @param sheetIndex        工作表索引
+     * @param invalidRowHandler 未通过校验的行，按行号顺序在消费Stream的线程上回调，抛出异常时结束读取
      */
-    private String formatString;
-
-    //上个有内容的单元格id，判断空单元格
-    private String lastCellid;
-
-    //两个不为空的单元格之间隔了多少个空的单元格
-    private int countNullCell = 0;
-
-    //定义前一个元素和当前元素的位置，用来计算其中空的单元格数量，如A6和A8等
-    private String preRef = null, ref = null;
-
-    //定义该文档一行最大的单元格数，用来补全一行最后可能缺失的单元格
-    private String maxRef = null;
+    public <T> Stream<T> stream(InputStream inputStream, Class<T> clazz, int sheetIndex,
+                                Consumer<? super InvalidRow> invalidRowHandler) {
+        return toStream(iterator(() -> OPCPackage.open(inputStream), clazz, sheetIndex, DEFAULT_BUFFER_SIZE, null, invalidRowHandler));
+    }
 
     /**
-     * 单元格
+     * 拉取式读取文件中的单个sheet，返回的Stream关闭时停止解析；遇到未通过校验的行时抛出IllegalStateException
+     *
+     * @param file       xlsx文件
+     * @param clazz      目标类
+     * @param sheetIndex 工作表索引
      */
-    private StylesTable stylesTable;
+    public <T> Stream<T> stream(File file, Class<T> clazz, int sheetIndex) {
+        return stream(file, clazz, sheetIndex, FAIL_ON_INVALID_ROW);
+    }
 
     /**
-     * 是否跳过了单元格
+     * 拉取式读取文件中的单个sheet，返回的Stream关闭时停止解析
+     *
+     * @param file              xlsx文件
+     * @param clazz             目标类
+     * @param sheetIndex        工作表索引
+     * @param invalidRowHandler 未通过校验的行，按行号顺序在消费Stream的线程上回调，抛出异常时结束读取
      */
-    private boolean isSkipCeil;
-
-    Map<String, List<Object>> result = Maps.newHashMap();
-
-    Map<String, List<InvalidRow>> unValidRows = Maps.newHashMap();
-
-    List<Class> classList = Lists.newArrayList();
+    public <T> Stream<T> stream(File file, Class<T> clazz, int sheetIndex, Consumer<? super InvalidRow> invalidRowHandler) {
+        return toStream(iterator(() -> OPCPackage.open(file.getPath(), PackageAccess.READ), clazz, sheetIndex,
+                DEFAULT_BUFFER_SIZE, null, invalidRowHandler));
+    }
 
     /**
-     * 遍历工作簿中所有的电子表格
-     * 并缓存在mySheetList中
+     * 拉取式读取单个sheet；遇到未通过校验的行时抛出IllegalStateException
      *
      * @param inputStream
-     * @throws Exception
+     * @param clazz       目标类
+     * @param sheetIndex  工作表索引
+     * @param bufferSize  解析线程与调用方之间缓冲的最大行数
+     * @param executor    解析线程池，为空时新建守护线程
      */
-    public <T> ExcelConvertResult process(InputStream inputStream, List<Class> clazzList) {
-        classList.addAll(clazzList);
-        try {
-            OPCPackage pkg = OPCPackage.open(inputStream);
-            XSSFReader xssfReader = new XSSFReader(pkg);
-            stylesTable = xssfReader.getStylesTable();
-            SharedStringsTable sst = xssfReader.getSharedStringsTable();
-            XMLReader parser = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
-            this.sst = sst;
-            parser.setContentHandler(this);
-            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
-            while (sheets.hasNext()) { //遍历sheet
-                curRow = 1; //标记初始行为第一行
-                InputStream sheet = sheets.next(); //sheets.next()和sheets.getSheetName()不能换位置，否则sheetName报错
-                sheetName = sheets.getSheetName();
-                InputSource sheetSource = new InputSource(sheet);
-                parser.parse(sheetSource); //解析excel的每条记录，在这个过程中startElement()、characters()、endElement()这三个函数会依次执行
-                sheetIndex++;
-                sheet.close();
-            }
-        } catch (Exception ex) {
-            log.error("Excel parse exception:{}", ex);
-        }
-        classList.clear();
-        sheetIndex = 0;
-        return new ExcelConvertResult(result, unValidRows); //返回该excel文件的总行数，不包括首列和空行
+    public <T> ExcelRecordIterator<T> iterator(InputStream inputStream, Class<T> clazz, int sheetIndex, int bufferSize, Executor executor) {
+        return iterator(inputStream, clazz, sheetIndex, bufferSize, executor, FAIL_ON_INVALID_ROW);
     }
 
-
     /**
-     * 导入结果包装
+     * 拉取式读取单个sheet
      *
-     * @param <T>
+     * @param inputStream
+     * @param clazz             目标类
+     * @param sheetIndex        工作表索引
+     * @param bufferSize        解析线程与调用方之间缓冲的最大行数
+     * @param executor          解析线程池，为空时新建守护线程
+     * @param invalidRowHandler 未通过校验的行，按行号顺序在迭代线程上回调，抛出异常时结束读取
      */
-    @Data
-    @AllArgsConstructor
-    public static class ExcelConvertResult<T> {
-        private Map<String, List<T>> records;
-        private Map<String, List<InvalidRow>> invalidRows;
+    public <T> ExcelRecordIterator<T> iterator(InputStream inputStream, Class<T> clazz, int sheetIndex, int bufferSize, Executor executor,
+                                               Consumer<? super InvalidRow> invalidRowHandler) {
+        return iterator(() -> OPCPackage.open(inputStream), clazz, sheetIndex, bufferSize, executor, invalidRowHandler);
     }
 
     /**
-     * 未通过校验行及错误信息
+     * 拉取式读取文件中的单个sheet；遇到未通过校验的行时抛出IllegalStateException
+     *
+     * @param file       xlsx文件
+     * @param clazz      目标类
+     * @param sheetIndex 工作表索引
+     * @param bufferSize 解析线程与调用方之间缓冲的最大行数
+     * @param executor   解析线程池，为空时新建守护线程
      */
-    @Data
-    @AllArgsConstructor
-    public static class InvalidRow {
-        private Row row;
-        private Map<String, String> errMsg;
-
-        public String getFormatErrorMsg() {
-            return errMsg.keySet().stream().map(title -> {
-                StringBuffer buff = new StringBuffer();
-                buff.append("【");
-                buff.append(title);
-                buff.append("】");
-                buff.append(errMsg.get(title));
-                return buff.toString();
-            }).collect(Collectors.joining("\r\n"));
-        }
+    public <T> ExcelRecordIterator<T> iterator(File file, Class<T> clazz, int sheetIndex, int bufferSize, Executor executor) {
+        return iterator(file, clazz, sheetIndex, bufferSize, executor, FAIL_ON_INVALID_ROW);
     }
 
     /**
-     * 第一个执行
+     * 拉取式读取文件中的单个sheet
      *
-     * @param uri
-     * @param localName
-     * @param name
-     * @param attributes
-     * @throws SAXException
+     * @param file              xlsx文件
+     * @param clazz             目标类
+     * @param sheetIndex        工作表索引
+     * @param bufferSize        解析线程与调用方之间缓冲的最大行数
+     * @param executor          解析线程池，为空时新建守护线程
+     * @param invalidRowHandler 未通过校验的行，按行号顺序在迭代线程上回调，抛出异常时结束读取
      */
-    @Override
-    public void startElement(String uri, String localName, String name, Attributes attributes) throws SAXException {
-        //c => 单元格
-        if ("c".equals(name)) {
-            //前一个单元格的位置
-            if (preRef == null) {
-                preRef = attributes.getValue("r");
-            } else {
-                preRef = ref;
-            }
-            //当前单元格的位置
-            ref = attributes.getValue("r");
-            cellList.put(covertRowIdtoInt(ref),null);
-            //设定单元格类型
-            this.setNextDataType(attributes);
-        }
+    public <T> ExcelRecordIterator<T> iterator(File file, Class<T> clazz, int sheetIndex, int bufferSize, Executor executor,
+                                               Consumer<? super InvalidRow> invalidRowHandler) {
+        return iterator(() -> OPCPackage.open(file.getPath(), PackageAccess.READ), clazz, sheetIndex, bufferSize, executor, invalidRowHandler);
+    }
 
-        //当元素为t时
-        if ("t".equals(name)) {
-            isTElement = true;
+    private <T> ExcelRecordIterator<T> iterator(PackageSource source, Class<T> clazz, int sheetIndex, int bufferSize, Executor executor,
+                                                Consumer<? super InvalidRow> invalidRowHandler) {
+        ExcelRecordIterator<T> iterator = new ExcelRecordIterator<>(bufferSize, invalidRowHandler);
+        List<Class> classList = Lists.newArrayList();
+        for (int i = 0; i < sheetIndex; i++) {
+            classList.add(null);
+        }
+        classList.add(clazz);
+        Runnable producer = () -> {
+            Throwable failure = null;
+            try {
+                read(source, classList, iterator.listener(), new ExcelReadOptions());
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                //无论如何结束都要放入结束标记，否则调用方一直阻塞
+                iterator.finish(failure);
+            }
+        };
+        if (executor != null) {
+            executor.execute(producer);
         } else {
-            isTElement = false;
+            Thread thread = new Thread(producer, "excel-xlsx-reader-" + READER_THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            thread.start();
         }
+        return iterator;
+    }
 
-        //置空
-        lastIndex = "";
+    private static <T> Stream<T> toStream(ExcelRecordIterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
     }
 
-    /**
-     * 第二个执行
-     * 得到单元格对应的索引值或是内容值
-     * 如果单元格类型是字符串、INLINESTR、数字、日期，lastIndex则是索引值
-     * 如果单元格类型是布尔值、错误、公式，lastIndex则是内容值
-     * @param ch
-     * @param start
-     * @param length
-     * @throws SAXException
-     */
-    @Override
-    public void characters(char[] ch, int start, int length) throws SAXException {
-        lastIndex += new String(ch, start, length);
+    private void read(PackageSource source, List<Class> classList, ExcelRecordListener<Object> listener, ExcelReadOptions options) {
+        OPCPackage pkg = null;
+        try {
+            pkg = source.open();
+            parse(pkg, classList, listener, options);
+        } catch (Exception ex) {
+            log.error("Excel parse exception:{}", ex);
+            throw new IllegalStateException("excel解析失败", ex);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
     }
 
     /**
-     * 第三个执行
-     *
-     * @param uri
-     * @param localName
-     * @param name
-     * @throws SAXException
+     * 在当前线程依次解析各sheet
      */
-    @Override
-    public void endElement(String uri, String localName, String name) throws SAXException {
-        //t元素也包含字符串
-        if (isTElement) {//这个程序没经过
-            //将单元格内容加入rowlist中，在这之前先去掉字符串前后的空白符
-            String value = lastIndex.trim();
-            cellList.put(covertRowIdtoInt(ref), value);
-            curCol++;
-            isTElement = false;
-            //如果里面某个单元格含有值，则标识该行不为空行
-            if (value != null && !"".equals(value)) {
-                flag = true;
-            }
-        } else if ("v".equals(name)) {
-            //v => 单元格的值，如果单元格是字符串，则v标签的值为该字符串在SST中的索引
-            String valueTemp = lastIndex.trim();
-            String value = this.getDataValue(valueTemp, "");//根据索引值获取对应的单元格值
-            cellList.put(covertRowIdtoInt(ref), value);
-            curCol++;
-            //如果里面某个单元格含有值，则标识该行不为空行
-            if (value != null && !"".equals(value)) {
-                flag = true;
-            }
-        } else {
-            //如果标签名称为row，这说明已到行尾，调用optRows()方法
-            if ("row".equals(name)) {
-                //默认第一行为表头，以该行单元格数目为最大数目
-                if (curRow == 1) {
-                    maxRef = ref;
-                }
-                //补全一行尾部可能缺失的单元格
-                if (maxRef != null) {
-                    int len = countNullCell(maxRef, ref);
-                    for (int i = 0; i <= len; i++) {
-                        cellList.put(covertRowIdtoInt(ref), "");
-                        curCol++;
+    private void parse(OPCPackage pkg, List<Class> classList, ExcelRecordListener<Object> listener, ExcelReadOptions options) throws Exception {
+        XSSFReader xssfReader = new XSSFReader(pkg);
+        SharedStrings sst = SharedStrings.open(pkg, options);
+        XlsxParseSession session = new XlsxParseSession(excelReaderUtil, sst, CellFormats.of(xssfReader.getStylesTable()), listener, options);
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        int sheetIndex = 0;
+        try {
+            while (sheets.hasNext() && sheetIndex < classList.size()) { //遍历sheet
+                InputStream sheet = sheets.next(); //sheets.next()和sheets.getSheetName()不能换位置，否则sheetName报错
+                try {
+                    Class clazz = classList.get(sheetIndex);
+                    if (clazz != null) {
+                        session.parseSheet(sheetIndex, sheets.getSheetName(), clazz, sheet);
                     }
+                } finally {
+                    sheet.close();
                 }
-
-                if (flag && curRow != 1) { //该行不为空行且该行不是第一行，则发送（第一行为列名，不需要）
-                    excelReaderUtil.sendRows(filePath, sheetName, sheetIndex, curRow, cellList, classList.get(sheetIndex), result, unValidRows);
-                    totalRows++;
-                }
-
-                cellList.clear();
-                curRow++;
-                curCol = 0;
-                preRef = null;
-                ref = null;
-                flag=false;
+                sheetIndex++;
+            }
+        } catch (XlsxParseSession.StopParsingException e) {
+            log.debug("接收方停止解析，sheet：{}", sheetIndex);
+        } finally {
+            try {
+                session.finish();
+            } finally {
+                sst.close();
             }
         }
     }
 
     /**
-     * 处理数据类型
-     *
-     * @param attributes
+     * 按sheet顺序合并各sheet的结果
      */
-    public void setNextDataType(Attributes attributes) {
-        nextDataType = CellDataType.NUMBER; //cellType为空，则表示该单元格类型为数字
-        formatIndex = -1;
-        formatString = null;
-        String cellType = attributes.getValue("t"); //单元格类型
-        String cellStyleStr = attributes.getValue("s"); //
-        String columnData = attributes.getValue("r"); //获取单元格的位置，如A1,B1
-
-        if ("b".equals(cellType)) { //处理布尔值
-            nextDataType = CellDataType.BOOL;
-        } else if ("e".equals(cellType)) {  //处理错误
-            nextDataType = CellDataType.ERROR;
-        } else if ("inlineStr".equals(cellType)) {
-            nextDataType = CellDataType.INLINESTR;
-        } else if ("s".equals(cellType)) { //处理字符串
-            nextDataType = CellDataType.SSTINDEX;
-        } else if ("str".equals(cellType)) {
-            nextDataType = CellDataType.FORMULA;
+    private static ExcelConvertResult merge(List<CollectingRecordListener> listeners) {
+        if (listeners.size() == 1) {
+            return listeners.get(0).getResult();
         }
-
-        if (cellStyleStr != null) { //处理日期
-            int styleIndex = Integer.parseInt(cellStyleStr);
-            XSSFCellStyle style = stylesTable.getStyleAt(styleIndex);
-            formatIndex = style.getDataFormat();
-            formatString = style.getDataFormatString();
-
-            if (formatString.contains("m/d/yy")) {
-                nextDataType = CellDataType.DATE;
-                formatString = "yyyy-MM-dd hh:mm:ss";
-            }
-
-            if (formatString == null) {
-                nextDataType = CellDataType.NULL;
-                formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
-            }
+        Map<String, List<Object>> records = Maps.newHashMap();
+        Map<String, List<InvalidRow>> invalidRows = Maps.newHashMap();
+        for (CollectingRecordListener listener : listeners) {
+            ExcelConvertResult<Object> result = listener.getResult();
+            result.getRecords().forEach((key, value) ->
+                    records.computeIfAbsent(key, k -> Lists.newArrayList()).addAll(value));
+            result.getInvalidRows().forEach((key, value) ->
+                    invalidRows.computeIfAbsent(key, k -> Lists.newArrayList()).addAll(value));
         }
+        return new ExcelConvertResult(records, invalidRows);
     }
 
     /**
-     * 对解析出来的数据进行类型处理
-     * @param value   单元格的值，
-     *                value代表解析：BOOL的为0或1， ERROR的为内容值，FORMULA的为内容值，INLINESTR的为索引值需转换为内容值，
-     *                SSTINDEX的为索引值需转换为内容值， NUMBER为内容值，DATE为内容值
-     * @param thisStr 一个空字符串
-     * @return
+     * 打开OPC包
      */
-    @SuppressWarnings("deprecation")
-    public String getDataValue(String value, String thisStr) {
-        switch (nextDataType) {
-            // 这几个的顺序不能随便交换，交换了很可能会导致数据错误
-            case BOOL: //布尔值
-                char first = value.charAt(0);
-                thisStr = first == '0' ? "FALSE" : "TRUE";
-                break;
-            case ERROR: //错误
-                thisStr = "\"ERROR:" + value.toString() + '"';
-                break;
-            case FORMULA: //公式
-                thisStr = '"' + value.toString() + '"';
-                break;
-            case INLINESTR:
-                XSSFRichTextString rtsi = new XSSFRichTextString(value.toString());
-                thisStr = rtsi.toString();
-                rtsi = null;
-                break;
-            case SSTINDEX: //字符串
-                String sstIndex = value.toString();
-                try {
-                    int idx = Integer.parseInt(sstIndex);
-                    XSSFRichTextString rtss = new XSSFRichTextString(sst.getEntryAt(idx));//根据idx索引值获取内容值
-                    thisStr = rtss.toString();
-                    rtss = null;
-                } catch (NumberFormatException ex) {
-                    thisStr = value.toString();
-                }
-                break;
-            case NUMBER: //数字
-                if (formatString != null) {
-                    thisStr = formatter.formatRawCellContents(Double.parseDouble(value), formatIndex, formatString).trim();
-                } else {
-                    thisStr = value;
-                }
-                thisStr = thisStr.replace("_", "").trim();
-                break;
-            case DATE: //日期
-                thisStr = formatter.formatRawCellContents(Double.parseDouble(value), formatIndex, formatString);
-                // 对日期字符串作特殊处理，去掉T
-                thisStr = thisStr.replace("T", " ");
-                break;
-            default:
-                thisStr = " ";
-                break;
-        }
-        return thisStr;
+    @FunctionalInterface
+    private interface PackageSource {
+        OPCPackage open() throws Exception;
     }
 
-    public int countNullCell(String ref, String preRef) {
-        //excel2007最大行数是1048576，最大列数是16384，最后一列列名是XFD
-        String xfd = ref.replaceAll("\\d+", "");
-        String xfd_1 = preRef.replaceAll("\\d+", "");
 
-        xfd = fillChar(xfd, 3, '@', true);
-        xfd_1 = fillChar(xfd_1, 3, '@', true);
-
-        char[] letter = xfd.toCharArray();
-        char[] letter_1 = xfd_1.toCharArray();
-        int res = (letter[0] - letter_1[0]) * 26 * 26 + (letter[1] - letter_1[1]) * 26 + (letter[2] - letter_1[2]);
-        return res - 1;
+    /**
+     * 导入结果包装
+     *
+     * @param <T>
+     */
+    @Data
+    @AllArgsConstructor
+    public static class ExcelConvertResult<T> {
+        private Map<String, List<T>> records;
+        private Map<String, List<InvalidRow>> invalidRows;
     }
 
-    public String fillChar(String str, int len, char let, boolean isPre) {
-        int len_1 = str.length();
-        if (len_1 < len) {
-            if (isPre) {
-                for (int i = 0; i < (len - len_1); i++) {
-                    str = let + str;
-                }
-            } else {
-                for (int i = 0; i < (len - len_1); i++) {
-                    str = str + let;
-                }
-            }
+    /**
+     * 未通过校验行及错误信息，含各列原始文本
+     */
+    public static class InvalidRow extends ExcelInvalidRow {
+
+        public InvalidRow(Class<?> type, int sheetIndex, String sheetName, int rowNum, String[] values, Map<String, String> errMsg) {
+            super(type, sheetIndex, sheetName, rowNum, values, errMsg);
         }
-        return str;
     }
 
     /**
@@ -478,36 +461,16 @@ public class ExcelXlsxReader extends DefaultHandler {
      * @return
      */
     public static int covertRowIdtoInt(String rowId) {
-        int firstDigit = -1;
-        for (int c = 0; c < rowId.length(); ++c) {
-            if (Character.isDigit(rowId.charAt(c))) {
-                firstDigit = c;
+        //AB7-->AB，AB是列号, 7是行号；直接按字符累加，不截取子串
+        int result = 0;
+        for (int i = 0, length = rowId.length(); i < length; i++) {
+            char ch = rowId.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
                 break;
             }
-        }
-        //AB7-->AB
-        //AB是列号, 7是行号
-        String newRowId = rowId.substring(0, firstDigit);
-        int num = 0;
-        int result = 0;
-        int length = newRowId.length();
-        for (int i = 0; i < length; i++) {
-            //先取最低位，B
-            char ch = newRowId.charAt(length - i - 1);
-            //B表示的十进制2，ascii码相减，以A的ascii码为基准，A表示1，B表示2
-            num = (int) (ch - 'A' + 1);
-            //列号转换相当于26进制数转10进制
-            num *= Math.pow(26, i);
-            result += num;
+            //列号转换相当于26进制数转10进制，A表示1，B表示2
+            result = result * 26 + (ch - 'A' + 1);
         }
         return result - 1;
-
-    }
-
-    /**
-     * @return the exceptionMessage
-     */
-    public String getExceptionMessage() {
-        return exceptionMessage;
     }
-}
\ No newline at end of file
+}
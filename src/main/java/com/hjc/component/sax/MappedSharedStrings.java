@@ -0,0 +1,241 @@
+package com.hjc.component.sax;
+
+import lombok.extern.slf4j.Slf4j;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname MappedSharedStrings
+ * @Description 磁盘共享字符串表：sharedStrings.xml流式解析一次，字符串以UTF-8顺序写入临时文件并内存映射，
+ * 堆内只保留偏移量索引及少量已解码字符串的LRU缓存，可被多个sheet并发读取
+ * @Date 2019/7/9 21:36
+ */
+@Slf4j
+class MappedSharedStrings implements SharedStrings {
+
+    /**
+     * 单个映射段的大小
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final Path file;
+
+    /**
+     * 第i个字符串位于[offsets[i], offsets[i + 1])
+     */
+    private final long[] offsets;
+
+    private final int count;
+
+    private final MappedByteBuffer[] segments;
+
+    private final Map<Integer, String> cache;
+
+    private MappedSharedStrings(Path file, long[] offsets, int count, int cacheSize) throws IOException {
+        this.file = file;
+        this.offsets = offsets;
+        this.count = count;
+        long size = offsets[count];
+        this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < segments.length; i++) {
+                long position = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+            }
+        }
+        if (cacheSize > 0) {
+            this.cache = Collections.synchronizedMap(new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * 流式解析sharedStrings.xml并建立磁盘表
+     *
+     * @param in        sharedStrings.xml
+     * @param cacheSize 已解码字符串缓存条数，不大于0时不缓存
+     */
+    static MappedSharedStrings load(InputStream in, int cacheSize) throws Exception {
+        Path file = Files.createTempFile("excel-sst-", ".bin");
+        try {
+            Writer writer;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                writer = new Writer(out);
+                XMLReader parser = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
+                parser.setContentHandler(writer);
+                parser.parse(new InputSource(in));
+            }
+            return new MappedSharedStrings(file, writer.offsets, writer.count, cacheSize);
+        } catch (Exception | Error e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @Override
+    public String getEntryAt(int idx) {
+        if (idx < 0 || idx >= count) {
+            throw new IndexOutOfBoundsException("共享字符串索引越界：" + idx + "，共" + count + "条");
+        }
+        if (cache == null) {
+            return decode(idx);
+        }
+        String value = cache.get(idx);
+        if (value == null) {
+            value = decode(idx);
+            cache.put(idx, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            //映射未释放前部分系统不允许删除，退出时再删
+            file.toFile().deleteOnExit();
+            log.debug("共享字符串临时文件删除失败：{}", file);
+        }
+    }
+
+    private String decode(int idx) {
+        long start = offsets[idx];
+        int length = (int) (offsets[idx + 1] - start);
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long position = start + copied;
+            //duplicate后各线程独立移动position，映射内容只读共享
+            ByteBuffer segment = segments[(int) (position / SEGMENT_SIZE)].duplicate();
+            segment.position((int) (position % SEGMENT_SIZE));
+            int n = Math.min(length - copied, segment.remaining());
+            segment.get(bytes, copied, n);
+            copied += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 将每个si的文本（t及r/t，不含注音rPh）写入临时文件并记录偏移量
+     */
+    private static class Writer extends DefaultHandler {
+
+        private final OutputStream out;
+
+        private final StringBuilder text = new StringBuilder();
+
+        private long[] offsets = new long[1024];
+
+        private int count;
+
+        private long position;
+
+        private boolean inPhonetic;
+
+        private boolean inText;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String name, Attributes attributes) {
+            if ("si".equals(localName)) {
+                text.setLength(0);
+            } else if ("rPh".equals(localName)) {
+                inPhonetic = true;
+            } else if ("t".equals(localName) && !inPhonetic) {
+                inText = true;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String name) throws SAXException {
+            if ("t".equals(localName)) {
+                inText = false;
+            } else if ("rPh".equals(localName)) {
+                inPhonetic = false;
+            } else if ("si".equals(localName)) {
+                byte[] bytes = unescape(text).getBytes(StandardCharsets.UTF_8);
+                try {
+                    out.write(bytes);
+                } catch (IOException e) {
+                    throw new SAXException(e);
+                }
+                if (count + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[count++] = position;
+                position += bytes.length;
+                offsets[count] = position;
+            }
+        }
+
+        /**
+         * 还原OOXML对控制字符的_xHHHH_转义，与XSSFRichTextString一致
+         */
+        private static String unescape(StringBuilder value) {
+            int i = value.indexOf("_x");
+            if (i < 0) {
+                return value.toString();
+            }
+            StringBuilder buf = new StringBuilder(value.length());
+            int last = 0;
+            for (; i >= 0; i = value.indexOf("_x", i + 1)) {
+                if (i + 7 <= value.length() && value.charAt(i + 6) == '_' && isHex(value, i + 2, i + 6)) {
+                    buf.append(value, last, i).append((char) Integer.parseInt(value.substring(i + 2, i + 6), 16));
+                    last = i + 7;
+                    i += 6;
+                }
+            }
+            return buf.append(value, last, value.length()).toString();
+        }
+
+        private static boolean isHex(StringBuilder value, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (Character.digit(value.charAt(i), 16) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
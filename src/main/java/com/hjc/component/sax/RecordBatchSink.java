@@ -0,0 +1,31 @@
+package com.hjc.component.sax;
+
+import java.util.List;
+
+/**
+ * @author by hjc
+ * @Classname RecordBatchSink
+ * @Description 分批接收导入结果，便于边解析边批量入库
+ * @Date 2019/7/9 21:36
+ */
+public interface RecordBatchSink<T> {
+
+    /**
+     * 接收一批数据，同一批次只包含同一个sheet的行
+     *
+     * @param sheetIndex  工作表索引
+     * @param sheetName   sheet名
+     * @param records     通过校验的实例
+     * @param invalidRows 未通过校验的行
+     */
+    void accept(int sheetIndex, String sheetName, List<T> records, List<ExcelXlsxReader.InvalidRow> invalidRows);
+
+    /**
+     * sheet结束，该sheet的最后一批已交付
+     *
+     * @param sheetIndex 工作表索引
+     * @param sheetName  sheet名
+     */
+    default void onSheetEnd(int sheetIndex, String sheetName) {
+    }
+}
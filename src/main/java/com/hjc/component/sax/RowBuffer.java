@@ -0,0 +1,145 @@
+package com.hjc.component.sax;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * @author by hjc
+ * @Classname RowBuffer
+ * @Description 一行单元格的容器：按列索引存放单元格值，位图记录出现过的单元格，
+ * 宽度不足时扩容，读表头行时即扩展到表头列数，之后数据行不超出表头时不再扩容；各行复用同一实例
+ * @Date 2019/7/9 21:36
+ */
+public class RowBuffer {
+
+    private String[] values;
+
+    /**
+     * 原始数值，仅numeric中的列有效
+     */
+    private double[] numbers;
+
+    /**
+     * 出现过的单元格（值可能为null）
+     */
+    private final BitSet present;
+
+    /**
+     * 以原始数值存放的单元格
+     */
+    private final BitSet numeric;
+
+    public RowBuffer(int width) {
+        this.values = new String[Math.max(width, 1)];
+        this.numbers = new double[values.length];
+        this.present = new BitSet(values.length);
+        this.numeric = new BitSet(values.length);
+    }
+
+    /**
+     * 设置单元格值，超出宽度时扩容
+     *
+     * @param column 列索引，从0开始
+     * @param value  单元格值
+     */
+    public void set(int column, String value) {
+        ensureWidth(column + 1);
+        values[column] = value;
+        present.set(column);
+        numeric.clear(column);
+    }
+
+    /**
+     * 以原始数值设置单元格，转换时交给处理器的{@code processNumber}
+     *
+     * @param column 列索引，从0开始
+     * @param value  原始数值
+     */
+    public void setNumber(int column, double value) {
+        ensureWidth(column + 1);
+        values[column] = null;
+        numbers[column] = value;
+        present.set(column);
+        numeric.set(column);
+    }
+
+    /**
+     * @param column 列索引，从0开始
+     * @return 单元格值，单元格不存在时为null
+     */
+    public String get(int column) {
+        return column >= 0 && column < values.length ? values[column] : null;
+    }
+
+    /**
+     * @param column 列索引，从0开始
+     * @return 单元格是否以原始数值存放
+     */
+    public boolean isNumber(int column) {
+        return column >= 0 && numeric.get(column);
+    }
+
+    /**
+     * @param column 列索引，从0开始
+     * @return 原始数值，仅{@link #isNumber}为true时有效
+     */
+    public double getNumber(int column) {
+        return numbers[column];
+    }
+
+    /**
+     * @param column 列索引，从0开始
+     * @return 该行是否包含此单元格
+     */
+    public boolean isPresent(int column) {
+        return column >= 0 && present.get(column);
+    }
+
+    /**
+     * @return 最后一个出现的单元格列索引+1
+     */
+    public int width() {
+        return present.length();
+    }
+
+    /**
+     * 预留宽度，已不小于width时不变
+     *
+     * @param width 列数
+     */
+    public void reserve(int width) {
+        ensureWidth(width);
+    }
+
+    /**
+     * 清空，保留容量供下一行使用
+     */
+    public void clear() {
+        for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+            values[i] = null;
+        }
+        present.clear();
+        numeric.clear();
+    }
+
+    /**
+     * @return 当前行的快照，不随本实例后续修改变化
+     */
+    public RowBuffer copy() {
+        int width = width();
+        RowBuffer copy = new RowBuffer(width);
+        System.arraycopy(values, 0, copy.values, 0, width);
+        System.arraycopy(numbers, 0, copy.numbers, 0, width);
+        copy.present.or(present);
+        copy.numeric.or(numeric);
+        return copy;
+    }
+
+    private void ensureWidth(int width) {
+        if (width > values.length) {
+            int length = Math.max(values.length * 2, width);
+            values = Arrays.copyOf(values, length);
+            numbers = Arrays.copyOf(numbers, length);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.hjc.component.sax;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author by hjc
+ * @Classname RowPipeline
+ * @Description 解析与转换流水线：SAX线程投递行快照，线程池并行转换校验，
+ * 收集线程按投递顺序取结果交给接收方，接收方始终只被收集线程调用
+ * @Date 2019/7/9 21:36
+ */
+class RowPipeline {
+
+    private static final AtomicInteger COLLECTOR_COUNT = new AtomicInteger();
+
+    /**
+     * 结束标记
+     */
+    private static final Future<Delivery> END = CompletableFuture.completedFuture(() -> false);
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    /**
+     * 等待交付时被中断，停止交付后最多再等待收集线程的时间
+     */
+    private static final long STOP_TIMEOUT_MILLIS = 1000;
+
+    private final ExcelReaderUtil excelReaderUtil;
+
+    private final ExcelRecordListener<Object> listener;
+
+    private final Executor executor;
+
+    /**
+     * 按投递顺序排列的转换结果，容量即流水线深度
+     */
+    private final BlockingQueue<Future<Delivery>> queue;
+
+    private final Thread collector;
+
+    private volatile boolean stopped;
+
+    private volatile Throwable failure;
+
+    RowPipeline(ExcelReaderUtil excelReaderUtil, ExcelRecordListener<Object> listener, Executor executor, int capacity) {
+        this.excelReaderUtil = excelReaderUtil;
+        this.listener = listener;
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.collector = new Thread(this::collect, "excel-xlsx-collector-" + COLLECTOR_COUNT.incrementAndGet());
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    /**
+     * 投递一行快照，流水线已满时阻塞
+     *
+     * @return 是否继续解析
+     */
+    boolean submit(int sheetIndex, String sheetName, int rowNum, Class<?> clazz, RowBuffer cells) {
+        if (stopped) {
+            return false;
+        }
+        put(CompletableFuture.supplyAsync(() -> {
+            Map<String, String> errMsg = Maps.newHashMap();
+            Object record = excelReaderUtil.convertRow(clazz, cells, errMsg);
+            if (errMsg.size() > 0) {
+                ExcelXlsxReader.InvalidRow invalidRow = new ExcelXlsxReader.InvalidRow(clazz, sheetIndex, sheetName, rowNum,
+                        excelReaderUtil.rawValues(clazz, cells), errMsg);
+                return () -> listener.onInvalidRow(sheetIndex, sheetName, rowNum, invalidRow);
+            } else if (record != null) {
+                return () -> listener.onRecord(sheetIndex, sheetName, rowNum, record);
+            }
+            return () -> true;
+        }, executor));
+        return !stopped;
+    }
+
+    /**
+     * 投递sheet结束，在该sheet全部行交付后回调接收方
+     */
+    void sheetEnd(int sheetIndex, String sheetName) {
+        put(CompletableFuture.completedFuture(() -> {
+            listener.onSheetEnd(sheetIndex, sheetName);
+            return true;
+        }));
+    }
+
+    /**
+     * 等待全部结果交付，接收方或转换中的异常在此重新抛出；
+     * 被中断时停止交付剩余结果，收集线程最多再等待{@link #STOP_TIMEOUT_MILLIS}
+     */
+    void finish() {
+        boolean interrupted = Thread.interrupted();
+        if (interrupted) {
+            stopped = true;
+        }
+        //结束标记必须送达，否则收集线程一直阻塞在take；被中断时仍继续投递，停止交付后队列很快腾出空位
+        while (collector.isAlive()) {
+            try {
+                if (queue.offer(END, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                stopped = true;
+            }
+        }
+        try {
+            if (interrupted) {
+                collector.join(STOP_TIMEOUT_MILLIS);
+            } else {
+                collector.join();
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+            stopped = true;
+            try {
+                collector.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException ignored) {
+                //已记录中断，不再等待
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待excel行交付被中断", failure);
+        }
+        if (failure != null) {
+            throw new IllegalStateException("excel行转换失败", failure);
+        }
+    }
+
+    private void put(Future<Delivery> future) {
+        try {
+            queue.put(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+    }
+
+    private void collect() {
+        while (true) {
+            Future<Delivery> future;
+            try {
+                future = queue.take();
+            } catch (InterruptedException e) {
+                stopped = true;
+                continue;
+            }
+            if (future == END) {
+                return;
+            }
+            if (stopped) {
+                continue;
+            }
+            try {
+                if (!future.get().deliver()) {
+                    stopped = true;
+                }
+            } catch (ExecutionException e) {
+                failure = e.getCause();
+                stopped = true;
+            } catch (Throwable e) {
+                failure = e;
+                stopped = true;
+            }
+        }
+    }
+
+    /**
+     * 交付一个转换结果
+     */
+    @FunctionalInterface
+    private interface Delivery {
+
+        /**
+         * @return 是否继续
+         */
+        boolean deliver();
+    }
+}
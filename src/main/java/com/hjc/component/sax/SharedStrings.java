@@ -0,0 +1,66 @@
+package com.hjc.component.sax;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.ZipPackagePart;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * @author by hjc
+ * @Classname SharedStrings
+ * @Description 共享字符串表，按索引返回单元格的纯文本
+ * @Date 2019/7/9 21:36
+ */
+@FunctionalInterface
+interface SharedStrings extends Closeable {
+
+    /**
+     * 按索引获取字符串
+     *
+     * @param idx sst索引
+     * @return 纯文本
+     */
+    String getEntryAt(int idx);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * 打开工作簿的共享字符串表：sharedStrings.xml不超过阈值时使用POI的内存表，
+     * 超过阈值时流式写入磁盘并内存映射
+     *
+     * @param pkg     工作簿
+     * @param options 读取选项
+     */
+    static SharedStrings open(OPCPackage pkg, ExcelReadOptions options) throws Exception {
+        List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            return idx -> {
+                throw new IndexOutOfBoundsException("工作簿没有共享字符串表，索引：" + idx);
+            };
+        }
+        PackagePart part = parts.get(0);
+        long size = part instanceof ZipPackagePart ? ((ZipPackagePart) part).getZipArchive().getSize() : -1;
+        if (size < 0) {
+            //由输入流打开的工作簿条目已解压在内存中，可用字节数即为大小
+            try (InputStream in = part.getInputStream()) {
+                size = in.available();
+            }
+        }
+        long threshold = options.getSharedStringsMappingThreshold();
+        if (threshold < 0 || size <= threshold) {
+            SharedStringsTable sst = new SharedStringsTable(part, null);
+            return idx -> new XSSFRichTextString(sst.getEntryAt(idx)).toString();
+        }
+        try (InputStream in = part.getInputStream()) {
+            return MappedSharedStrings.load(in, options.getSharedStringsCacheSize());
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package com.hjc.component.sax;
+
+import com.google.common.collect.Maps;
+import com.hjc.component.binding.ExcelClassMapping;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.XMLReaderFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname XlsxParseSession
+ * @Description 单次xlsx导入的解析会话，持有全部解析状态，每次process新建，不在线程间共享
+ * @Date 2019/7/9 21:36
+ */
+@Slf4j
+class XlsxParseSession extends DefaultHandler {
+
+    /**
+     * 单元格中的数据可能的数据类型
+     */
+    enum CellDataType {
+        BOOL, ERROR, FORMULA, INLINESTR, SSTINDEX, NUMBER, DATE, NULL
+    }
+
+    private final ExcelReaderUtil excelReaderUtil;
+
+    /**
+     * 共享字符串表（只读）
+     */
+    private final SharedStrings sst;
+
+    /**
+     * 按样式索引预先取出的数字格式（只读）
+     */
+    private final CellFormats cellFormats;
+
+    /**
+     * 行结果接收方
+     */
+    private final ExcelRecordListener<Object> listener;
+
+    /**
+     * 转换流水线，为空时在SAX线程上直接转换
+     */
+    private final RowPipeline pipeline;
+
+    private final DataFormatter formatter = new DataFormatter();
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    /**
+     * 当前元素的文本，各单元格复用，只在需要字符串时才创建String
+     */
+    private char[] text = new char[64];
+
+    /**
+     * 文本长度
+     */
+    private int textLength;
+
+    /**
+     * 当前sheet的目标类
+     */
+    private Class<?> clazz;
+
+    /**
+     * 按列索引标记可直接接收原始数值的列，分别对应普通数字/布尔单元格和日期单元格
+     */
+    private boolean[] numberColumns, dateColumns;
+
+    /**
+     * 工作表索引
+     */
+    private int sheetIndex = 0;
+
+    /**
+     * sheet名
+     */
+    private String sheetName = "";
+
+    /**
+     * 总行数
+     */
+    private int totalRows = 0;
+
+    /**
+     * 一行内cell集合，每个sheet开始时按目标类的最大列索引预留宽度，读表头行时扩展到表头列数
+     */
+    private final RowBuffer cellList = new RowBuffer(16);
+
+    /**
+     * 判断整行是否为空行的标记
+     */
+    private boolean flag = false;
+
+    /**
+     * 当前行号，从1开始，取自row元素的r属性，省略时紧接前一行
+     */
+    private int curRow = 0;
+
+    /**
+     * 当前sheet的表头行（第一个row元素）是否已读过
+     */
+    private boolean headerRead;
+
+    /**
+     * 当前单元格的列索引，从0开始
+     */
+    private int curCol = -1;
+
+    /**
+     * T元素标识
+     */
+    private boolean isTElement;
+
+    /**
+     * 单元格数据类型，默认为字符串类型
+     */
+    private CellDataType nextDataType = CellDataType.SSTINDEX;
+
+    /**
+     * 单元格日期格式的索引
+     */
+    private short formatIndex;
+
+    /**
+     * 日期格式字符串
+     */
+    private String formatString;
+
+    //表头行最后一个单元格的列索引，用来补全一行最后可能缺失的单元格
+    private int maxCol = -1;
+
+    XlsxParseSession(ExcelReaderUtil excelReaderUtil, SharedStrings sst, CellFormats cellFormats, ExcelRecordListener<Object> listener) {
+        this(excelReaderUtil, sst, cellFormats, listener, null);
+    }
+
+    XlsxParseSession(ExcelReaderUtil excelReaderUtil, SharedStrings sst, CellFormats cellFormats, ExcelRecordListener<Object> listener,
+                     ExcelReadOptions options) {
+        this.excelReaderUtil = excelReaderUtil;
+        this.sst = sst;
+        this.cellFormats = cellFormats;
+        this.listener = listener;
+        if (options != null && options.getConvertExecutor() != null) {
+            this.pipeline = new RowPipeline(excelReaderUtil, listener, options.getConvertExecutor(), options.getPipelineCapacity());
+        } else {
+            this.pipeline = null;
+        }
+    }
+
+    /**
+     * 解析一个sheet
+     *
+     * @param index 工作表索引
+     * @param name  sheet名
+     * @param clazz 目标类
+     * @param sheet sheet数据流
+     * @throws StopParsingException 接收方要求停止解析
+     */
+    void parseSheet(int index, String name, Class<?> clazz, InputStream sheet) throws SAXException, IOException {
+        sheetIndex = index;
+        sheetName = name;
+        this.clazz = clazz;
+        numberColumns = excelReaderUtil.numberColumns(clazz, false);
+        dateColumns = excelReaderUtil.numberColumns(clazz, true);
+        //单元格按order存放，order可能不连续，按最大order预留
+        cellList.reserve(ExcelClassMapping.of(clazz).getWidth());
+        curRow = 0;
+        headerRead = false;
+        maxCol = -1;
+        curCol = -1;
+        XMLReader parser = XMLReaderFactory.createXMLReader("org.apache.xerces.parsers.SAXParser");
+        parser.setContentHandler(this);
+        parser.parse(new InputSource(sheet)); //解析excel的每条记录，在这个过程中startElement()、characters()、endElement()这三个函数会依次执行
+        if (pipeline != null) {
+            pipeline.sheetEnd(sheetIndex, sheetName);
+        } else {
+            listener.onSheetEnd(sheetIndex, sheetName);
+        }
+    }
+
+    /**
+     * 结束会话，流水线模式下等待全部行交付
+     */
+    void finish() {
+        if (pipeline != null) {
+            pipeline.finish();
+        }
+    }
+
+    int getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * 第一个执行
+     *
+     * @param uri
+     * @param localName
+     * @param name
+     * @param attributes
+     * @throws SAXException
+     */
+    @Override
+    public void startElement(String uri, String localName, String name, Attributes attributes) throws SAXException {
+        //row => 行，r属性为从1开始的行号，可省略，省略时紧接前一行；空行不写入文件，不能按计数推算行号
+        if ("row".equals(name)) {
+            String ref = attributes.getValue("r");
+            curRow = ref != null ? Integer.parseInt(ref) : curRow + 1;
+        }
+        //c => 单元格
+        if ("c".equals(name)) {
+            //当前单元格的位置，r属性可省略，省略时紧接前一个单元格
+            String ref = attributes.getValue("r");
+            curCol = ref != null ? ExcelXlsxReader.covertRowIdtoInt(ref) : curCol + 1;
+            cellList.set(curCol, null);
+            //设定单元格类型
+            this.setNextDataType(attributes);
+        }
+
+        //当元素为t时
+        if ("t".equals(name)) {
+            isTElement = true;
+        } else {
+            isTElement = false;
+        }
+
+        //置空
+        textLength = 0;
+    }
+
+    /**
+     * 第二个执行
+     * 得到单元格对应的索引值或是内容值
+     * 如果单元格类型是字符串、INLINESTR、数字、日期，text则是索引值
+     * 如果单元格类型是布尔值、错误、公式，text则是内容值
+     * @param ch
+     * @param start
+     * @param length
+     * @throws SAXException
+     */
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (textLength + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + length));
+        }
+        System.arraycopy(ch, start, text, textLength, length);
+        textLength += length;
+    }
+
+    /**
+     * 第三个执行
+     *
+     * @param uri
+     * @param localName
+     * @param name
+     * @throws SAXException
+     */
+    @Override
+    public void endElement(String uri, String localName, String name) throws SAXException {
+        //t元素也包含字符串
+        if (isTElement) {//这个程序没经过
+            //将单元格内容加入rowlist中，在这之前先去掉字符串前后的空白符
+            String value = trimmedText();
+            cellList.set(curCol, value);
+            isTElement = false;
+            //如果里面某个单元格含有值，则标识该行不为空行
+            if (value != null && !"".equals(value)) {
+                flag = true;
+            }
+        } else if ("v".equals(name) && setRawNumber()) {
+            //目标字段可直接接收原始数值，跳过格式化
+            flag = true;
+        } else if ("v".equals(name)) {
+            //v => 单元格的值，如果单元格是字符串，则v标签的值为该字符串在SST中的索引
+            String value = this.getDataValue();//根据索引值获取对应的单元格值
+            cellList.set(curCol, value);
+            //如果里面某个单元格含有值，则标识该行不为空行
+            if (value != null && !"".equals(value)) {
+                flag = true;
+            }
+        } else {
+            //如果标签名称为row，这说明已到行尾，调用optRows()方法
+            if ("row".equals(name)) {
+                //sheet中第一个row元素为表头（不一定是第1行），以该行单元格数目为最大数目
+                boolean header = !headerRead;
+                if (header) {
+                    maxCol = curCol;
+                    headerRead = true;
+                }
+                //补全一行尾部可能缺失的单元格
+                for (int i = curCol + 1; i <= maxCol; i++) {
+                    cellList.set(i, "");
+                }
+
+                if (flag && !header) { //该行不为空行且不是表头行，则发送（表头为列名，不需要）
+                    totalRows++;
+                    if (!sendRow()) {
+                        throw new StopParsingException();
+                    }
+                }
+
+                cellList.clear();
+                curCol = -1;
+                flag = false;
+            }
+        }
+    }
+
+    /**
+     * 转换当前行并交给接收方，流水线模式下投递行快照
+     *
+     * @return 是否继续解析
+     */
+    private boolean sendRow() {
+        if (pipeline != null) {
+            return pipeline.submit(sheetIndex, sheetName, curRow, clazz, cellList.copy());
+        }
+        Map<String, String> errMsg = Maps.newHashMap();
+        Object record = excelReaderUtil.convertRow(clazz, cellList, errMsg);
+        if (errMsg.size() > 0) {
+            return listener.onInvalidRow(sheetIndex, sheetName, curRow, new ExcelXlsxReader.InvalidRow(clazz, sheetIndex, sheetName,
+                    curRow, excelReaderUtil.rawValues(clazz, cellList), errMsg));
+        } else if (record != null) {
+            return listener.onRecord(sheetIndex, sheetName, curRow, record);
+        }
+        return true;
+    }
+
+    /**
+     * 处理数据类型
+     *
+     * @param attributes
+     */
+    private void setNextDataType(Attributes attributes) {
+        nextDataType = CellDataType.NUMBER; //cellType为空，则表示该单元格类型为数字
+        formatIndex = -1;
+        formatString = null;
+        String cellType = attributes.getValue("t"); //单元格类型
+        String cellStyleStr = attributes.getValue("s"); //
+
+        if ("b".equals(cellType)) { //处理布尔值
+            nextDataType = CellDataType.BOOL;
+        } else if ("e".equals(cellType)) {  //处理错误
+            nextDataType = CellDataType.ERROR;
+        } else if ("inlineStr".equals(cellType)) {
+            nextDataType = CellDataType.INLINESTR;
+        } else if ("s".equals(cellType)) { //处理字符串
+            nextDataType = CellDataType.SSTINDEX;
+        } else if ("str".equals(cellType)) {
+            nextDataType = CellDataType.FORMULA;
+        }
+
+        if (cellStyleStr != null) { //处理日期
+            int styleIndex = Integer.parseInt(cellStyleStr);
+            if (cellFormats.contains(styleIndex)) {
+                formatIndex = cellFormats.getFormatIndex(styleIndex);
+                formatString = cellFormats.getFormatString(styleIndex);
+                if (cellFormats.isDate(styleIndex)) {
+                    nextDataType = CellDataType.DATE;
+                } else if (cellFormats.isUnformatted(styleIndex)) {
+                    nextDataType = CellDataType.NULL;
+                }
+            }
+        }
+    }
+
+    /**
+     * 对解析出来的数据进行类型处理
+     * 单元格的值取自text，BOOL的为0或1， ERROR的为内容值，FORMULA的为内容值，INLINESTR的为索引值需转换为内容值，
+     * SSTINDEX的为索引值需转换为内容值， NUMBER为内容值，DATE为内容值
+     *
+     * @return
+     */
+    @SuppressWarnings("deprecation")
+    private String getDataValue() {
+        int from = trimStart();
+        int to = trimEnd(from);
+        if (nextDataType == CellDataType.BOOL) { //布尔值，不创建字符串
+            if (from == to) {
+                return "";
+            }
+            return text[from] == '0' ? "FALSE" : "TRUE";
+        }
+        if (nextDataType == CellDataType.SSTINDEX) { //字符串，直接从缓冲区解析索引
+            int idx = parseIndex(from, to);
+            return idx >= 0 ? sst.getEntryAt(idx) : new String(text, from, to - from);
+        }
+        String value = new String(text, from, to - from);
+        String thisStr;
+        switch (nextDataType) {
+            // 这几个的顺序不能随便交换，交换了很可能会导致数据错误
+            case ERROR: //错误
+                thisStr = "\"ERROR:" + value + '"';
+                break;
+            case FORMULA: //公式
+                thisStr = '"' + value + '"';
+                break;
+            case INLINESTR:
+                XSSFRichTextString rtsi = new XSSFRichTextString(value);
+                thisStr = rtsi.toString();
+                rtsi = null;
+                break;
+            case NUMBER: //数字
+                if (formatString != null) {
+                    thisStr = formatter.formatRawCellContents(Double.parseDouble(value), formatIndex, formatString).trim();
+                } else {
+                    thisStr = value;
+                }
+                thisStr = thisStr.replace("_", "").trim();
+                break;
+            case DATE: //日期
+                thisStr = formatter.formatRawCellContents(Double.parseDouble(value), formatIndex, formatString);
+                // 对日期字符串作特殊处理，去掉T
+                thisStr = thisStr.replace("T", " ");
+                break;
+            default:
+                thisStr = " ";
+                break;
+        }
+        return thisStr;
+    }
+
+    /**
+     * 数字、日期、布尔单元格的目标字段可直接接收原始数值时，将原始数值放入当前行
+     *
+     * @return 是否已放入
+     */
+    private boolean setRawNumber() {
+        boolean[] columns;
+        if (nextDataType == CellDataType.NUMBER || nextDataType == CellDataType.BOOL) {
+            columns = numberColumns;
+        } else if (nextDataType == CellDataType.DATE) {
+            columns = dateColumns;
+        } else {
+            return false;
+        }
+        if (curCol < 0 || curCol >= columns.length || !columns[curCol]) {
+            return false;
+        }
+        int from = trimStart();
+        int to = trimEnd(from);
+        if (from == to) {
+            return false;
+        }
+        double value = parseSimpleDouble(from, to);
+        if (Double.isNaN(value)) {
+            try {
+                value = Double.parseDouble(new String(text, from, to - from));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        cellList.setNumber(curCol, value);
+        return true;
+    }
+
+    /**
+     * 从缓冲区解析不超过15位有效数字、不带指数的十进制数，此时整数部分与10的幂均可精确表示，一次除法即得到正确舍入的结果
+     *
+     * @return 数值，超出范围时返回NaN
+     */
+    private double parseSimpleDouble(int from, int to) {
+        int i = from;
+        boolean negative = text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < to; i++) {
+            char ch = text[i];
+            if (ch >= '0' && ch <= '9') {
+                if (++digits > 15) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (ch - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (ch == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * 去掉首尾空白后的文本
+     */
+    private String trimmedText() {
+        int from = trimStart();
+        return new String(text, from, trimEnd(from) - from);
+    }
+
+    private int trimStart() {
+        int from = 0;
+        while (from < textLength && text[from] <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int from) {
+        int to = textLength;
+        while (to > from && text[to - 1] <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * 从缓冲区解析非负整数索引
+     *
+     * @return 索引，不是合法数字时返回-1
+     */
+    private int parseIndex(int from, int to) {
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char ch = text[i];
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            result = result * 10 + (ch - '0');
+        }
+        return result;
+    }
+
+    /**
+     * 接收方要求停止解析时抛出，用于中断SAX解析
+     */
+    static final class StopParsingException extends SAXException {
+
+        StopParsingException() {
+            super("stop parsing");
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.hjc.component.service;
 
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
+
 import java.util.Map;
 
 /**
@@ -16,4 +19,76 @@ public interface BaseDataTypeHandleCommand {
      * @param value
      */
     Object process(String title, String value, Map<String, String> errMsg, String format) ;
+
+    /**
+     * 按列配置执行，需要小数位数等列级配置的处理器覆盖此方法
+     * @param column 列元数据
+     * @param value
+     * @param errMsg
+     */
+    default Object process(ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        return process(column.getTitle(), value, errMsg, column.getFormat());
+    }
+
+    /**
+     * 是否可以直接处理单元格的原始数值，为true时读取xlsx跳过格式化再解析，改为调用{@link #processNumber}
+     * @param date 单元格是否为日期格式，为true时数值是Excel日期序列值
+     * @return 是否支持
+     */
+    default boolean supportsNumber(boolean date) {
+        return false;
+    }
+
+    /**
+     * 处理单元格的原始数值：数字、日期序列值或布尔单元格的0/1
+     * @param title
+     * @param value 原始数值
+     * @param errMsg
+     * @param format
+     */
+    default Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        throw new UnsupportedOperationException("不支持直接处理数值：" + title);
+    }
+
+    /**
+     * 按列配置处理原始数值
+     * @param column 列元数据
+     * @param value  原始数值
+     * @param errMsg
+     */
+    default Object processNumber(ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        return processNumber(column.getTitle(), value, errMsg, column.getFormat());
+    }
+
+    /**
+     * 转换并写入构造状态，基本类型处理器覆盖此方法调用{@link RecordFactory#setInt}等，避免装箱
+     * @param factory 行实例工厂
+     * @param state   构造状态
+     * @param column  列元数据
+     * @param value   单元格值
+     * @param errMsg
+     */
+    default void write(RecordFactory<?> factory, Object state, ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        factory.set(state, column, process(column, value, errMsg));
+    }
+
+    /**
+     * 转换原始数值并写入构造状态
+     * @param factory 行实例工厂
+     * @param state   构造状态
+     * @param column  列元数据
+     * @param value   原始数值
+     * @param errMsg
+     */
+    default void writeNumber(RecordFactory<?> factory, Object state, ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        factory.set(state, column, processNumber(column, value, errMsg));
+    }
+
+    /**
+     * 自定义处理器声明支持的数据类型，容器启动时自动注册
+     * @return 支持的数据类型
+     */
+    default Class<?>[] supportTypes() {
+        return new Class<?>[0];
+    }
 }
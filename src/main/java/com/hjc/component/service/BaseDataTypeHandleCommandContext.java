@@ -1,15 +1,21 @@
 package com.hjc.component.service;
 
 import com.hjc.component.enums.BaseDataTypeHandleCommandEnum;
+import com.hjc.component.service.impl.EnumHandleCommand;
 import com.hjc.component.service.impl.PrintAllCommand;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Function:
+ * Function: 类型处理器注册表，按Class解析一次，之后按类型直接取用
  *
  * @author hjc
  */
@@ -17,28 +23,143 @@ import java.util.Map;
 @Slf4j
 public class BaseDataTypeHandleCommandContext {
 
+    /**
+     * 【枚举类->处理器】，每个枚举类只建一次查找表
+     */
+    private static final ClassValue<EnumHandleCommand> ENUM_HANDLERS = new ClassValue<EnumHandleCommand>() {
+        @Override
+        protected EnumHandleCommand computeValue(Class<?> type) {
+            return new EnumHandleCommand(type);
+        }
+    };
+
+    /**
+     * 容器中的全部处理器
+     */
+    @Autowired(required = false)
+    private List<BaseDataTypeHandleCommand> commands = Collections.emptyList();
+
+    /**
+     * 【数据类型->处理器】
+     */
+    private final Map<Class<?>, BaseDataTypeHandleCommand> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * 【类型名->处理器】，兼容按名称获取
+     */
+    private final Map<String, BaseDataTypeHandleCommand> namedHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * 未注册类型的处理器
+     */
+    private volatile BaseDataTypeHandleCommand fallback;
+
+    /**
+     * 注册表版本，注册新处理器时在锁内递增，列元数据据此判断缓存的处理器是否失效
+     */
+    private volatile int version;
+
+    /**
+     * 初始化内置处理器及容器中声明了supportTypes的处理器
+     */
+    @PostConstruct
+    public synchronized void init() {
+        if (fallback != null) {
+            return;
+        }
+        Map<Class<?>, BaseDataTypeHandleCommand> beans = new HashMap<>(16);
+        for (BaseDataTypeHandleCommand command : commands) {
+            beans.put(command.getClass(), command);
+        }
+        Map<String, String> allClazz = BaseDataTypeHandleCommandEnum.getAllClazz();
+        for (BaseDataTypeHandleCommandEnum commandEnum : BaseDataTypeHandleCommandEnum.values()) {
+            BaseDataTypeHandleCommand command = resolve(allClazz.get(commandEnum.getCommandType()), beans);
+            if (command == null) {
+                continue;
+            }
+            namedHandlers.put(commandEnum.getCommandType(), command);
+            if (commandEnum.getType() != null) {
+                handlers.put(commandEnum.getType(), command);
+            }
+        }
+        for (BaseDataTypeHandleCommand command : commands) {
+            for (Class<?> type : command.supportTypes()) {
+                handlers.put(type, command);
+                namedHandlers.put(type.getName(), command);
+            }
+        }
+        BaseDataTypeHandleCommand printAll = beans.get(PrintAllCommand.class);
+        fallback = printAll != null ? printAll : new PrintAllCommand();
+        version++;
+    }
+
+    /**
+     * 注册自定义类型处理器，已存在时覆盖
+     * @param type    数据类型
+     * @param command 处理器
+     */
+    public synchronized void register(Class<?> type, BaseDataTypeHandleCommand command) {
+        init();
+        handlers.put(type, command);
+        namedHandlers.put(type.getName(), command);
+        version++;
+    }
+
+    /**
+     * 获取执行器实例，未单独注册的枚举类型使用绑定该枚举类的处理器
+     * @param type 数据类型
+     * @return
+     */
+    public BaseDataTypeHandleCommand getInstance(Class<?> type) {
+        if (fallback == null) {
+            init();
+        }
+        BaseDataTypeHandleCommand command = handlers.get(type);
+        if (command == null && type.isEnum()) {
+            command = ENUM_HANDLERS.get(type);
+        }
+        if (command == null) {
+            log.warn("未注册的数据类型：{}，该列不会赋值", type.getName());
+            return fallback;
+        }
+        return command;
+    }
+
     /**
      * 获取执行器实例
      * @param command 执行器实例
      * @return
      */
     public BaseDataTypeHandleCommand getInstance(String command) {
-
-        Map<String, String> allClazz = BaseDataTypeHandleCommandEnum.getAllClazz();
-
+        if (fallback == null) {
+            init();
+        }
         //兼容需要命令后接参数的数据 :q cross
         String[] trim = command.trim().split(" ");
-        String clazz = allClazz.get(trim[0]);
-        BaseDataTypeHandleCommand innerCommand = null;
+        BaseDataTypeHandleCommand innerCommand = namedHandlers.get(trim[0]);
+        return innerCommand != null ? innerCommand : fallback;
+    }
+
+    /**
+     * 注册表版本
+     * @return
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    private static BaseDataTypeHandleCommand resolve(String clazz, Map<Class<?>, BaseDataTypeHandleCommand> beans) {
         try {
-            if (StringUtils.isEmpty(clazz)){
-                clazz = PrintAllCommand.class.getName() ;
+            Class<?> commandClass = Class.forName(clazz);
+            BaseDataTypeHandleCommand command = beans.get(commandClass);
+            if (command == null) {
+                command = (BaseDataTypeHandleCommand) commandClass.newInstance();
             }
-            innerCommand = (BaseDataTypeHandleCommand) SpringBeanFactory.getBean(Class.forName(clazz));
+            return command;
         } catch (Exception e) {
             log.error("Exception", e);
+            return null;
         }
-        return innerCommand;
     }
 
 }
@@ -1,7 +1,8 @@
 package com.hjc.component.service.impl;
 
+import com.hjc.component.binding.ExcelColumnMapping;
 import com.hjc.component.service.BaseDataTypeHandleCommand;
-import com.hjc.component.util.PatternUtil;
+import com.hjc.component.util.NumberParseUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
@@ -20,11 +21,47 @@ public class BigDecimalHandleCommand implements BaseDataTypeHandleCommand {
     @Override
     public Object process(String title, String value, Map<String, String> errMsg,String format) {
         //大数
-        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
-            return new BigDecimal(value);
-        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        if (!NumberParseUtil.isDecimal(value)) {
+            errMsg.put(title, "请输入小数");
+            return null;
+        }
+        return new BigDecimal(value);
+    }
+
+    @Override
+    public Object process(ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        Object decimal = process(column.getTitle(), value, errMsg, column.getFormat());
+        return decimal == null ? null : scale((BigDecimal) decimal, column);
+    }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return !date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
             errMsg.put(title, "请输入小数");
+            return null;
         }
-        return null;
+        //整数值不带小数位，与单元格文本一致
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return BigDecimal.valueOf((long) value);
+        }
+        return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public Object processNumber(ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        Object decimal = processNumber(column.getTitle(), value, errMsg, column.getFormat());
+        return decimal == null ? null : scale((BigDecimal) decimal, column);
+    }
+
+    private static BigDecimal scale(BigDecimal decimal, ExcelColumnMapping column) {
+        return column.getScale() < 0 ? decimal : decimal.setScale(column.getScale(), column.getRounding());
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.hjc.component.service.impl;
 
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
 import com.hjc.component.service.BaseDataTypeHandleCommand;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -28,4 +30,36 @@ public class BooleanHandleCommand implements BaseDataTypeHandleCommand {
         return null;
     }
 
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return !date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        //布尔单元格的原始值为0/1
+        if (value == 0 || value == 1) {
+            return value == 1;
+        }
+        errMsg.put(title, "请输入true/false");
+        return null;
+    }
+
+    @Override
+    public void write(RecordFactory<?> factory, Object state, ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        if ("true".equals(value) || "false".equals(value)) {
+            factory.setBoolean(state, column, value.length() == 4);
+        } else if (StringUtils.isNotBlank(value)) {
+            errMsg.put(column.getTitle(), "请输入true/false");
+        }
+    }
+
+    @Override
+    public void writeNumber(RecordFactory<?> factory, Object state, ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        if (value == 0 || value == 1) {
+            factory.setBoolean(state, column, value == 1);
+        } else {
+            errMsg.put(column.getTitle(), "请输入true/false");
+        }
+    }
 }
\ No newline at end of file
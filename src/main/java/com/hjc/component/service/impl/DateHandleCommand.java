@@ -1,11 +1,12 @@
 package com.hjc.component.service.impl;
 
 import com.hjc.component.service.BaseDataTypeHandleCommand;
+import com.hjc.component.util.DateFormatUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.springframework.stereotype.Service;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
 /**
@@ -22,8 +23,7 @@ public class DateHandleCommand implements BaseDataTypeHandleCommand {
         if (StringUtils.isNotBlank(value)) {
             //日期
             try {
-                SimpleDateFormat sdf = new SimpleDateFormat(format);
-                return sdf.parse(value);
+                return DateFormatUtil.parseDate(value, format);
             } catch (ParseException e) {
                 errMsg.put(title, "输入格式：" + format);
                 return null;
@@ -32,4 +32,19 @@ public class DateHandleCommand implements BaseDataTypeHandleCommand {
             return null;
         }
     }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        //Excel日期序列值直接转日期，不经过格式化字符串
+        if (!DateUtil.isValidExcelDate(value)) {
+            errMsg.put(title, "输入格式：" + format);
+            return null;
+        }
+        return DateUtil.getJavaDate(value);
+    }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.hjc.component.service.impl;
 
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
 import com.hjc.component.service.BaseDataTypeHandleCommand;
-import com.hjc.component.util.PatternUtil;
+import com.hjc.component.util.NumberParseUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -21,18 +24,27 @@ public class DoubleHandleCommand implements BaseDataTypeHandleCommand {
     public static final Pattern PATTERN_1 = Pattern.compile("^[\\-+]?((0{1,3}|([1-8]\\d?))(\\.\\d*)?|90(\\.0*)?)$");
     public static final Pattern PATTERN_2 = Pattern.compile("^([-+])?(((\\d|[1-9]\\d|1[0-7]\\d|0{1,3})\\.\\d*)|(\\d|[1-9]\\d|1[0-7]\\d|0{1,3})|180\\.0*|180)$");
 
+    /**
+     * 默认保留6位小数，直接截断
+     */
+    private static final int DEFAULT_SCALE = 6;
+
     @Override
     public Object process(String title, String value, Map<String, String> errMsg, String format) {
-        //双浮点
-        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
-            Double number = Double.parseDouble(value);
-            BigDecimal bigDecimal = new BigDecimal(number);
-            double bdfScale = bigDecimal.setScale(6, BigDecimal.ROUND_DOWN).doubleValue();
-            return bdfScale;
-        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
-            errMsg.put(title, "请输入小数");
+        return box(parse(title, value, errMsg, DEFAULT_SCALE, RoundingMode.DOWN));
+    }
+
+    @Override
+    public Object process(ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        return box(parse(column.getTitle(), value, errMsg, scale(column), column.getRounding()));
+    }
+
+    @Override
+    public void write(RecordFactory<?> factory, Object state, ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        double number = parse(column.getTitle(), value, errMsg, scale(column), column.getRounding());
+        if (!Double.isNaN(number)) {
+            factory.setDouble(state, column, number);
         }
-        return null;
     }
 
     public static void main(String[] args) {
@@ -44,4 +56,61 @@ public class DoubleHandleCommand implements BaseDataTypeHandleCommand {
             System.out.println(bdfScale);
         }
     }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return !date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        return box(round(title, value, errMsg, DEFAULT_SCALE, RoundingMode.DOWN));
+    }
+
+    @Override
+    public Object processNumber(ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        return box(round(column.getTitle(), value, errMsg, scale(column), column.getRounding()));
+    }
+
+    @Override
+    public void writeNumber(RecordFactory<?> factory, Object state, ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        double number = round(column.getTitle(), value, errMsg, scale(column), column.getRounding());
+        if (!Double.isNaN(number)) {
+            factory.setDouble(state, column, number);
+        }
+    }
+
+    /**
+     * @return 数值，空值或格式不合法时为NaN
+     */
+    private static double parse(String title, String value, Map<String, String> errMsg, int scale, RoundingMode rounding) {
+        //双浮点，校验与转换一次完成
+        if (StringUtils.isBlank(value)) {
+            return Double.NaN;
+        }
+        double number = NumberParseUtil.parseDecimal(value, scale, rounding);
+        if (Double.isNaN(number)) {
+            errMsg.put(title, "请输入小数");
+        }
+        return number;
+    }
+
+    /**
+     * @return 数值，不合法时为NaN
+     */
+    private static double round(String title, double value, Map<String, String> errMsg, int scale, RoundingMode rounding) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            errMsg.put(title, "请输入小数");
+            return Double.NaN;
+        }
+        return NumberParseUtil.round(value, scale, rounding);
+    }
+
+    private static Double box(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static int scale(ExcelColumnMapping column) {
+        return column.getScale() >= 0 ? column.getScale() : DEFAULT_SCALE;
+    }
 }
\ No newline at end of file
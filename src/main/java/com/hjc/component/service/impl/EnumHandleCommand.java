@@ -0,0 +1,78 @@
+package com.hjc.component.service.impl;
+
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.service.BaseDataTypeHandleCommand;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author by hjc
+ * @Classname EnumHandleCommand
+ * @Description 枚举数据处理：按显示名称（toString）或常量名查找，每个枚举类一个处理器，由类型注册表创建并缓存
+ * @Date 2019/7/9 21:36
+ */
+public class EnumHandleCommand implements BaseDataTypeHandleCommand {
+
+    /**
+     * 【显示名称/常量名->常量】查找表
+     */
+    private final Map<String, Object> constants;
+
+    /**
+     * 可选的显示名称，用于错误信息
+     */
+    private final String options;
+
+    /**
+     * @param enumType 枚举类
+     */
+    public EnumHandleCommand(Class<?> enumType) {
+        if (!enumType.isEnum()) {
+            throw new IllegalArgumentException("不是枚举类型：" + enumType.getName());
+        }
+        Object[] values = enumType.getEnumConstants();
+        Map<String, Object> map = new HashMap<>(values.length * 4);
+        Set<String> displays = new LinkedHashSet<>();
+        for (Object value : values) {
+            map.putIfAbsent(((Enum<?>) value).name(), value);
+            displays.add(display((Enum<?>) value));
+        }
+        //显示名称优先于常量名
+        for (Object value : values) {
+            map.put(display((Enum<?>) value), value);
+        }
+        this.constants = map;
+        this.options = String.join("/", displays);
+    }
+
+    @Override
+    public Object process(String title, String value, Map<String, String> errMsg, String format) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        Object constant = constants.get(value.trim());
+        if (constant == null) {
+            errMsg.put(title, "请输入" + options);
+        }
+        return constant;
+    }
+
+    @Override
+    public Object process(ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        return process(column.getTitle(), value, errMsg, column.getFormat());
+    }
+
+    /**
+     * 导出时的显示名称
+     *
+     * @param constant 枚举常量
+     * @return 显示名称
+     */
+    public static String display(Enum<?> constant) {
+        return constant.toString();
+    }
+}
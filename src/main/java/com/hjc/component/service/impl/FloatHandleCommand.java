@@ -1,10 +1,12 @@
 package com.hjc.component.service.impl;
 
+import com.hjc.component.binding.ExcelColumnMapping;
 import com.hjc.component.service.BaseDataTypeHandleCommand;
-import com.hjc.component.util.PatternUtil;
+import com.hjc.component.util.NumberParseUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.Map;
 
 /**
@@ -18,11 +20,40 @@ public class FloatHandleCommand implements BaseDataTypeHandleCommand {
 
     @Override
     public Object process(String title, String value, Map<String, String> errMsg,String format) {
-        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
-            return Float.parseFloat(value);
-        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        if (!NumberParseUtil.isDecimal(value)) {
             errMsg.put(title, "请输入小数");
+            return null;
+        }
+        return Float.parseFloat(value);
+    }
+
+    @Override
+    public Object process(ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        if (column.getScale() < 0 || StringUtils.isBlank(value)) {
+            return process(column.getTitle(), value, errMsg, column.getFormat());
+        }
+        if (!NumberParseUtil.isDecimal(value)) {
+            errMsg.put(column.getTitle(), "请输入小数");
+            return null;
         }
-        return null;
+        return new BigDecimal(value).setScale(column.getScale(), column.getRounding()).floatValue();
+    }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return !date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        return (float) value;
+    }
+
+    @Override
+    public Object processNumber(ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        return (float) NumberParseUtil.round(value, column.getScale(), column.getRounding());
     }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.hjc.component.service.impl;
 
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
 import com.hjc.component.service.BaseDataTypeHandleCommand;
-import com.hjc.component.util.PatternUtil;
+import com.hjc.component.util.NumberParseUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
@@ -16,15 +18,62 @@ import java.util.Map;
 @Service
 public class IntegerHandleCommand implements BaseDataTypeHandleCommand {
 
+    private static final double MAX_VALUE = 99999999;
 
     @Override
     public Object process(String title, String value, Map<String, String> errMsg,String format) {
-        //整型
-        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_INTEGER.matcher(value).matches()) {
-            return Integer.parseInt(value);
-        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_INTEGER.matcher(value).matches()) {
+        //整型，校验与转换一次完成
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        int number = NumberParseUtil.parseInteger(value);
+        if (number < 0) {
             errMsg.put(title, "请输入整数");
+            return null;
+        }
+        return number;
+    }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return !date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        if (isInteger(value)) {
+            return (int) value;
         }
+        errMsg.put(title, "请输入整数");
         return null;
     }
+
+    @Override
+    public void write(RecordFactory<?> factory, Object state, ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        if (StringUtils.isBlank(value)) {
+            return;
+        }
+        int number = NumberParseUtil.parseInteger(value);
+        if (number < 0) {
+            errMsg.put(column.getTitle(), "请输入整数");
+            return;
+        }
+        factory.setInt(state, column, number);
+    }
+
+    @Override
+    public void writeNumber(RecordFactory<?> factory, Object state, ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        if (isInteger(value)) {
+            factory.setInt(state, column, (int) value);
+        } else {
+            errMsg.put(column.getTitle(), "请输入整数");
+        }
+    }
+
+    /**
+     * 与PATTERN_INTEGER一致：最多8位的非负整数
+     */
+    private static boolean isInteger(double value) {
+        return value >= 0 && value <= MAX_VALUE && value == Math.rint(value);
+    }
 }
\ No newline at end of file
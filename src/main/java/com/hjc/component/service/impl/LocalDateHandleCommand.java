@@ -0,0 +1,49 @@
+package com.hjc.component.service.impl;
+
+import com.hjc.component.service.BaseDataTypeHandleCommand;
+import com.hjc.component.util.DateFormatUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname LocalDateHandleCommand
+ * @Description LocalDate型数据处理
+ * @Date 2019/7/9 21:36
+ */
+@Service
+public class LocalDateHandleCommand implements BaseDataTypeHandleCommand {
+
+    @Override
+    public Object process(String title, String value, Map<String, String> errMsg, String format) {
+        if (StringUtils.isNotBlank(value)) {
+            try {
+                return DateFormatUtil.parseLocalDateTime(value, format).toLocalDate();
+            } catch (ParseException e) {
+                errMsg.put(title, "输入格式：" + format);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        //Excel日期序列值直接转换，不经过格式化字符串
+        if (!DateUtil.isValidExcelDate(value)) {
+            errMsg.put(title, "输入格式：" + format);
+            return null;
+        }
+        return DateUtil.getJavaDate(value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
\ No newline at end of file
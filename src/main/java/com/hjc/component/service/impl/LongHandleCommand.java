@@ -0,0 +1,82 @@
+package com.hjc.component.service.impl;
+
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
+import com.hjc.component.service.BaseDataTypeHandleCommand;
+import com.hjc.component.util.NumberParseUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * @author by hjc
+ * @Classname LongHandleCommand
+ * @Description 长整型数据处理
+ * @Date 2019/7/9 21:36
+ */
+@Service
+public class LongHandleCommand implements BaseDataTypeHandleCommand {
+
+    /**
+     * double可精确表示的最大整数
+     */
+    private static final double MAX_EXACT = 9007199254740992D;
+
+    @Override
+    public Object process(String title, String value, Map<String, String> errMsg, String format) {
+        //长整型，校验与转换一次完成
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        long number = NumberParseUtil.parseLong(value);
+        if (number == Long.MIN_VALUE) {
+            errMsg.put(title, "请输入整数");
+            return null;
+        }
+        return number;
+    }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return !date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        if (isLong(value)) {
+            return (long) value;
+        }
+        errMsg.put(title, "请输入整数");
+        return null;
+    }
+
+    @Override
+    public void write(RecordFactory<?> factory, Object state, ExcelColumnMapping column, String value, Map<String, String> errMsg) {
+        if (StringUtils.isBlank(value)) {
+            return;
+        }
+        long number = NumberParseUtil.parseLong(value);
+        if (number == Long.MIN_VALUE) {
+            errMsg.put(column.getTitle(), "请输入整数");
+            return;
+        }
+        factory.setLong(state, column, number);
+    }
+
+    @Override
+    public void writeNumber(RecordFactory<?> factory, Object state, ExcelColumnMapping column, double value, Map<String, String> errMsg) {
+        if (isLong(value)) {
+            factory.setLong(state, column, (long) value);
+        } else {
+            errMsg.put(column.getTitle(), "请输入整数");
+        }
+    }
+
+    /**
+     * 超出double精确范围的数值已丢失精度，视为不合法
+     */
+    private static boolean isLong(double value) {
+        return Math.abs(value) <= MAX_EXACT && value == Math.rint(value);
+    }
+}
\ No newline at end of file
@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author by hjc
@@ -18,8 +19,16 @@ import java.util.Map;
 public class PrintAllCommand implements BaseDataTypeHandleCommand {
     private final static Logger LOGGER = LoggerFactory.getLogger(PrintAllCommand.class);
 
+    /**
+     * 作为未注册类型的处理器时会逐单元格调用，命令表只打印一次
+     */
+    private final AtomicBoolean printed = new AtomicBoolean();
+
     @Override
     public Object process(String title, String formatValue, Map<String, String> errMsg,String format) {
+        if (!printed.compareAndSet(false, true)) {
+            return null;
+        }
         Map<String, String> allStatusCode = BaseDataTypeHandleCommandEnum.getAllStatusCode();
         LOGGER.warn("====================================");
         for (Map.Entry<String, String> stringStringEntry : allStatusCode.entrySet()) {
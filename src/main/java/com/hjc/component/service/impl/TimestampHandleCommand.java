@@ -1,12 +1,13 @@
 package com.hjc.component.service.impl;
 
 import com.hjc.component.service.BaseDataTypeHandleCommand;
+import com.hjc.component.util.DateFormatUtil;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.springframework.stereotype.Service;
 
 import java.sql.Timestamp;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
 /**
@@ -23,12 +24,26 @@ public class TimestampHandleCommand implements BaseDataTypeHandleCommand {
         if (StringUtils.isNotBlank(value)) {
             //时间戳
             try {
-                SimpleDateFormat sdf = new SimpleDateFormat(format);
-                return new Timestamp(sdf.parse(value).getTime());
+                return new Timestamp(DateFormatUtil.parseDate(value, format).getTime());
             } catch (ParseException e) {
                 errMsg.put(title, "输入格式：" + format);
             }
         }
         return null;
     }
+
+    @Override
+    public boolean supportsNumber(boolean date) {
+        return date;
+    }
+
+    @Override
+    public Object processNumber(String title, double value, Map<String, String> errMsg, String format) {
+        //Excel日期序列值直接转时间戳，不经过格式化字符串
+        if (!DateUtil.isValidExcelDate(value)) {
+            errMsg.put(title, "输入格式：" + format);
+            return null;
+        }
+        return new Timestamp(DateUtil.getJavaDate(value).getTime());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.hjc.component.util;
+
+import org.apache.poi.hssf.usermodel.HSSFCellStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * @author by hjc
+ * @Classname CellStylePool
+ * @Description 工作簿级样式池：按{@link CellStyleSpec}去重，同一工作簿内相同描述的样式、字体只创建一次，
+ * 样式数量不随sheet数增长（HSSF单个工作簿约4000个样式上限）；
+ * 池中只记录样式、字体在工作簿中的索引，不持有工作簿对象，工作簿回收后随之释放
+ * @Date 2019/7/9 21:36
+ */
+public final class CellStylePool {
+
+    private static final Map<Workbook, CellStylePool> POOLS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<CellStyleSpec, Short> styles = new HashMap<>();
+
+    private final Map<CellStyleSpec, Short> fonts = new HashMap<>();
+
+    private CellStylePool() {
+    }
+
+    /**
+     * 获取工作簿对应的样式
+     *
+     * @param wb   工作簿
+     * @param spec 样式描述
+     * @return 工作簿中已有的样式，首次使用时创建
+     */
+    public static CellStyle get(Workbook wb, CellStyleSpec spec) {
+        return POOLS.computeIfAbsent(wb, key -> new CellStylePool()).style(wb, spec);
+    }
+
+    private synchronized CellStyle style(Workbook wb, CellStyleSpec spec) {
+        Short index = styles.get(spec);
+        if (index != null) {
+            return wb.getCellStyleAt(index);
+        }
+        CellStyle style = create(wb, spec);
+        styles.put(spec, style.getIndex());
+        return style;
+    }
+
+    private CellStyle create(Workbook wb, CellStyleSpec spec) {
+        CellStyle style = wb.createCellStyle();
+        if (spec.hasFont()) {
+            style.setFont(font(wb, spec.font()));
+        }
+        if (spec.getFillColor() != null) {
+            style.setFillPattern(HSSFCellStyle.SOLID_FOREGROUND);
+            style.setFillForegroundColor(spec.getFillColor());
+        }
+        if (spec.isThinBorder()) {
+            style.setBorderTop(CellStyle.BORDER_THIN);
+            style.setBorderRight(CellStyle.BORDER_THIN);
+            style.setBorderBottom(CellStyle.BORDER_THIN);
+            style.setBorderLeft(CellStyle.BORDER_THIN);
+        }
+        if (spec.getAlignment() != null) {
+            style.setAlignment(spec.getAlignment());
+        }
+        if (spec.getDataFormat() != null) {
+            style.setDataFormat(wb.createDataFormat().getFormat(spec.getDataFormat()));
+        }
+        style.setLocked(spec.isLocked());
+        return style;
+    }
+
+    private Font font(Workbook wb, CellStyleSpec spec) {
+        Short index = fonts.get(spec);
+        if (index != null) {
+            return wb.getFontAt(index);
+        }
+        Font font = wb.createFont();
+        if (spec.getFontName() != null) {
+            font.setFontName(spec.getFontName());
+        }
+        if (spec.getFontHeightInPoints() != null) {
+            font.setFontHeightInPoints(spec.getFontHeightInPoints());
+        }
+        if (spec.getFontColor() != null) {
+            font.setColor(spec.getFontColor());
+        }
+        if (spec.isBold()) {
+            font.setBoldweight(Font.BOLDWEIGHT_BOLD);
+        }
+        fonts.put(spec, font.getIndex());
+        return font;
+    }
+}
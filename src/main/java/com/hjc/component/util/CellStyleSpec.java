@@ -0,0 +1,77 @@
+package com.hjc.component.util;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * @author by hjc
+ * @Classname CellStyleSpec
+ * @Description 单元格样式描述（字体、填充、边框、对齐、格式），作为样式池的键，属性相同即视为同一样式；
+ * 为null的属性沿用工作簿默认值
+ * @Date 2019/7/9 21:36
+ */
+@Value
+@Builder(toBuilder = true)
+public class CellStyleSpec {
+
+    /**
+     * 字体名称
+     */
+    private String fontName;
+
+    /**
+     * 字号
+     */
+    private Short fontHeightInPoints;
+
+    /**
+     * 字体颜色，取HSSFColor中的索引
+     */
+    private Short fontColor;
+
+    /**
+     * 是否加粗
+     */
+    private boolean bold;
+
+    /**
+     * 纯色填充的前景色，取HSSFColor中的索引
+     */
+    private Short fillColor;
+
+    /**
+     * 是否四边细边框
+     */
+    private boolean thinBorder;
+
+    /**
+     * 水平对齐，取CellStyle.ALIGN_*
+     */
+    private Short alignment;
+
+    /**
+     * 数据格式，如"@"、"yyyy-MM-dd"
+     */
+    private String dataFormat;
+
+    /**
+     * 是否锁定，与POI新建样式的默认值一致为true
+     */
+    @Builder.Default
+    private boolean locked = true;
+
+    /**
+     * @return 是否需要单独的字体
+     */
+    boolean hasFont() {
+        return fontName != null || fontHeightInPoints != null || fontColor != null || bold;
+    }
+
+    /**
+     * @return 只含字体属性的描述，作为字体池的键
+     */
+    CellStyleSpec font() {
+        return CellStyleSpec.builder().fontName(fontName).fontHeightInPoints(fontHeightInPoints)
+                .fontColor(fontColor).bold(bold).build();
+    }
+}
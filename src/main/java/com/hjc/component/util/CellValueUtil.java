@@ -0,0 +1,71 @@
+package com.hjc.component.util;
+
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.service.impl.EnumHandleCommand;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * @author by hjc
+ * @Classname CellValueUtil
+ * @Description 导出时属性值到单元格文本的转换，POI导出与流式xlsx导出共用
+ * @Date 2019/7/9 21:36
+ */
+public class CellValueUtil {
+
+    private CellValueUtil() {
+    }
+
+    /**
+     * 属性值转为单元格文本
+     *
+     * @param column 属性列
+     * @param value  属性值
+     * @return 单元格文本，值为null时为空串
+     */
+    public static String toText(ExcelColumnMapping column, Object value) {
+        String formatValue = "";
+        if (value instanceof String) {
+            //字符串型
+            formatValue = (String) value;
+        } else if (value instanceof Integer) {
+            //整型
+            formatValue = String.valueOf(value);
+        } else if (value instanceof Float) {
+            //浮点
+            formatValue = String.valueOf(value);
+        } else if (value instanceof Double) {
+            //双浮点
+            formatValue = String.valueOf(value);
+        } else if (value instanceof BigDecimal) {
+            //大数
+            formatValue = ((BigDecimal) value).toString();
+        } else if (value instanceof Boolean) {
+            //布尔
+            formatValue = String.valueOf(value);
+        } else if (value instanceof Timestamp) {
+            //时间戳
+            formatValue = DateFormatUtil.format(new Date(((Timestamp) value).getTime()), column.getFormat());
+        } else if (value instanceof Date) {
+            //日期
+            formatValue = DateFormatUtil.format((Date) value, column.getFormat());
+        } else if (value instanceof Instant) {
+            //时间点
+            formatValue = DateFormatUtil.format((Instant) value, column.getFormat());
+        } else if (value instanceof TemporalAccessor) {
+            //LocalDate、LocalDateTime
+            formatValue = DateFormatUtil.format((TemporalAccessor) value, column.getFormat());
+        } else if (value instanceof Enum) {
+            //枚举
+            formatValue = EnumHandleCommand.display((Enum<?>) value);
+        } else if (value != null) {
+            //int、long等已装箱的其他类型
+            formatValue = String.valueOf(value);
+        }
+        return formatValue;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hjc.component.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * @author by hjc
+ * @Classname CellWriter
+ * @Description 导出时单列的单元格写入器，按属性类型预先选定，见{@link CellWriters}
+ * @Date 2019/7/9 21:36
+ */
+@FunctionalInterface
+public interface CellWriter {
+
+    /**
+     * 写入单元格
+     *
+     * @param cell  单元格
+     * @param value 属性值，不为null
+     */
+    void write(Cell cell, Object value);
+}
@@ -0,0 +1,209 @@
+package com.hjc.component.util;
+
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.service.impl.EnumHandleCommand;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author by hjc
+ * @Classname CellWriters
+ * @Description 按属性类型与format预先为每列选定写入器：数值、布尔、日期写为原生单元格，日期样式按格式在工作簿内复用，
+ * 只有字符串属性写为文本；超出Excel 15位有效数字的数值、Excel无法表示的日期格式及其他类型仍写为文本。
+ * 判断规则同时供流式导出使用，两种导出的单元格类型一致
+ * @Date 2019/7/9 21:36
+ */
+public final class CellWriters {
+
+    /**
+     * Excel数值可精确显示的最大整数（15位）
+     */
+    private static final long MAX_EXACT_LONG = 999_999_999_999_999L;
+
+    private static final int EXCEL_PRECISION = 15;
+
+    private static final CellWriter STRING = (cell, value) -> cell.setCellValue((String) value);
+
+    private static final CellWriter BOOLEAN = (cell, value) -> cell.setCellValue((Boolean) value);
+
+    private static final CellWriter ENUM = (cell, value) -> cell.setCellValue(EnumHandleCommand.display((Enum<?>) value));
+
+    private CellWriters() {
+    }
+
+    /**
+     * 为各列选定写入器
+     *
+     * @param wb      工作簿，日期、小数样式在其中创建
+     * @param columns 属性列
+     * @return 与columns顺序一致的写入器
+     */
+    public static CellWriter[] compile(Workbook wb, List<ExcelColumnMapping> columns) {
+        CellWriter[] writers = new CellWriter[columns.size()];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = of(wb, columns.get(i));
+        }
+        return writers;
+    }
+
+    /**
+     * 为单列选定写入器
+     *
+     * @param wb     工作簿，日期、小数样式在其中创建
+     * @param column 属性列
+     */
+    public static CellWriter of(Workbook wb, ExcelColumnMapping column) {
+        Class<?> type = ClassUtils.primitiveToWrapper(column.getType());
+        if (type == String.class) {
+            return STRING;
+        }
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return number(wb, column);
+        }
+        if (isDate(type)) {
+            return date(wb, column);
+        }
+        if (type.isEnum()) {
+            return ENUM;
+        }
+        return (cell, value) -> cell.setCellValue(CellValueUtil.toText(column, value));
+    }
+
+    private static CellWriter number(Workbook wb, ExcelColumnMapping column) {
+        String format = numberFormat(column);
+        CellStyle style = format != null ? CellStylePool.get(wb, CellStyleSpec.builder().dataFormat(format).build()) : null;
+        return (cell, value) -> {
+            Number number = (Number) value;
+            if (!isExact(number)) {
+                cell.setCellValue(CellValueUtil.toText(column, value));
+                return;
+            }
+            cell.setCellValue(toExcelNumber(number));
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        };
+    }
+
+    /**
+     * 数值列的显示格式，小数类型且指定了scale时按scale保留位数
+     *
+     * @param column 数值属性列
+     * @return 显示格式，不需要时为null
+     */
+    public static String numberFormat(ExcelColumnMapping column) {
+        Class<?> type = ClassUtils.primitiveToWrapper(column.getType());
+        boolean decimal = type == Double.class || type == Float.class || type == BigDecimal.class;
+        if (!decimal || column.getScale() < 0) {
+            return null;
+        }
+        return column.getScale() == 0 ? "0" : "0." + StringUtils.repeat('0', column.getScale());
+    }
+
+    /**
+     * 转为Excel数值
+     */
+    public static double toExcelNumber(Number number) {
+        //float直接转double会带出二进制误差，如0.1f变为0.10000000149
+        return number instanceof Float ? Double.parseDouble(number.toString()) : number.doubleValue();
+    }
+
+    /**
+     * 是否为日期类属性：Date及其子类、Instant、LocalDateTime、LocalDate
+     */
+    public static boolean isDate(Class<?> type) {
+        return Date.class.isAssignableFrom(type) || type == Instant.class
+                || type == LocalDateTime.class || type == LocalDate.class;
+    }
+
+    /**
+     * 数值能否不丢精度地写为Excel数值
+     */
+    public static boolean isExact(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            return !Double.isNaN(value) && !Double.isInfinite(value);
+        }
+        if (number instanceof BigDecimal) {
+            return ((BigDecimal) number).precision() <= EXCEL_PRECISION;
+        }
+        if (number instanceof BigInteger) {
+            return ((BigInteger) number).abs().compareTo(BigInteger.valueOf(MAX_EXACT_LONG)) <= 0;
+        }
+        long value = number.longValue();
+        return value >= -MAX_EXACT_LONG && value <= MAX_EXACT_LONG;
+    }
+
+    private static CellWriter date(Workbook wb, ExcelColumnMapping column) {
+        if (!isExcelDateFormat(column.getFormat())) {
+            return (cell, value) -> cell.setCellValue(CellValueUtil.toText(column, value));
+        }
+        CellStyle style = CellStylePool.get(wb, CellStyleSpec.builder().dataFormat(column.getFormat()).build());
+        return (cell, value) -> {
+            double excelDate = toExcelDate(value);
+            if (excelDate < 0) {
+                //早于1900年，Excel无法表示
+                cell.setCellValue(CellValueUtil.toText(column, value));
+                return;
+            }
+            cell.setCellValue(excelDate);
+            cell.setCellStyle(style);
+        };
+    }
+
+    /**
+     * 转为Excel日期序列值，按系统时区
+     *
+     * @return 序列值，早于1900年时为-1
+     */
+    public static double toExcelDate(Object value) {
+        return DateUtil.getExcelDate(toDate(value));
+    }
+
+    /**
+     * 按系统时区转为java.util.Date，与{@link DateFormatUtil}一致
+     */
+    private static Date toDate(Object value) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof Instant) {
+            return Date.from((Instant) value);
+        }
+        LocalDateTime dateTime = value instanceof LocalDate ? ((LocalDate) value).atStartOfDay() : (LocalDateTime) value;
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * 只含yyyy、MM、dd、HH、mm、ss等字段字母及分隔符的格式可直接作为Excel日期格式；
+     * 含12小时制、毫秒、星期、引号等时Excel显示与java不一致，写为文本
+     */
+    public static boolean isExcelDateFormat(String format) {
+        if (StringUtils.isEmpty(format)) {
+            return false;
+        }
+        for (int i = 0; i < format.length(); i++) {
+            char ch = format.charAt(i);
+            if (ch == '\'' || ch == '"' || ch == '\\' || Character.isLetter(ch) && "yMdHms".indexOf(ch) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
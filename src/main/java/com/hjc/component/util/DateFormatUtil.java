@@ -0,0 +1,282 @@
+package com.hjc.component.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author by hjc
+ * @Classname DateFormatUtil
+ * @Description 日期格式化/解析，按格式缓存线程安全的DateTimeFormatter；
+ * 只含yyyy、MM、dd、HH、mm、ss及分隔符的定长格式直接按位置解析，
+ * DateTimeFormatter解析失败时退回宽松的SimpleDateFormat，兼容原有写法；
+ * 含时区/偏移字段的格式按系统时区格式化，解析时按字符串中的时区换算到系统时区
+ * @Date 2019/7/9 21:36
+ */
+public class DateFormatUtil {
+
+    private static final ConcurrentMap<String, CompiledPattern> PATTERNS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> LENIENT_FORMATS = ThreadLocal.withInitial(HashMap::new);
+
+    private DateFormatUtil() {
+    }
+
+    /**
+     * 解析为本地日期时间，格式中没有时间部分时为当天零点
+     *
+     * @param value   日期字符串
+     * @param pattern 日期格式
+     * @throws ParseException 无法解析
+     */
+    public static LocalDateTime parseLocalDateTime(String value, String pattern) throws ParseException {
+        CompiledPattern compiled = compile(pattern);
+        LocalDateTime dateTime = compiled.parseFixed(value);
+        if (dateTime != null) {
+            return dateTime;
+        }
+        if (compiled.formatter != null) {
+            try {
+                TemporalAccessor parsed = compiled.formatter.parse(value);
+                LocalDate date = parsed.query(TemporalQueries.localDate());
+                LocalTime time = parsed.query(TemporalQueries.localTime());
+                //格式含时间但未解析出时间（如hh缺少上下午标记）时退回宽松解析
+                if (date != null && (time != null || !compiled.hasTime)) {
+                    LocalDateTime local = LocalDateTime.of(date, time != null ? time : LocalTime.MIDNIGHT);
+                    ZoneId zone = parsed.query(TemporalQueries.zone());
+                    //带时区的时间换算到系统时区
+                    return zone == null ? local : local.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                }
+            } catch (DateTimeException e) {
+                //退回宽松解析
+            }
+        }
+        return LocalDateTime.ofInstant(lenient(pattern).parse(value).toInstant(), ZoneId.systemDefault());
+    }
+
+    /**
+     * 解析为java.util.Date，按系统时区
+     *
+     * @param value   日期字符串
+     * @param pattern 日期格式
+     * @throws ParseException 无法解析
+     */
+    public static Date parseDate(String value, String pattern) throws ParseException {
+        return Date.from(parseLocalDateTime(value, pattern).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * 格式化java.util.Date，按系统时区
+     *
+     * @param date    日期
+     * @param pattern 日期格式
+     */
+    public static String format(Date date, String pattern) {
+        if (compile(pattern).formatter == null) {
+            return lenient(pattern).format(date);
+        }
+        return format(date.toInstant(), pattern);
+    }
+
+    /**
+     * 格式化Instant，按系统时区
+     *
+     * @param instant 时间点
+     * @param pattern 日期格式
+     */
+    public static String format(Instant instant, String pattern) {
+        CompiledPattern compiled = compile(pattern);
+        if (compiled.formatter == null) {
+            return lenient(pattern).format(Date.from(instant));
+        }
+        return compiled.formatter.format(ZonedDateTime.ofInstant(instant, ZoneId.systemDefault()));
+    }
+
+    /**
+     * 格式化LocalDate、LocalDateTime等，格式含时区而日期不带时区时按系统时区
+     *
+     * @param temporal 日期
+     * @param pattern  日期格式
+     */
+    public static String format(TemporalAccessor temporal, String pattern) {
+        CompiledPattern compiled = compile(pattern);
+        if (compiled.formatter == null) {
+            throw new IllegalArgumentException("不支持的日期格式：" + pattern);
+        }
+        if (compiled.zoned) {
+            if (temporal instanceof LocalDateTime) {
+                temporal = ((LocalDateTime) temporal).atZone(ZoneId.systemDefault());
+            } else if (temporal instanceof LocalDate) {
+                temporal = ((LocalDate) temporal).atStartOfDay(ZoneId.systemDefault());
+            }
+        }
+        return compiled.formatter.format(temporal);
+    }
+
+    private static CompiledPattern compile(String pattern) {
+        CompiledPattern compiled = PATTERNS.get(pattern);
+        if (compiled == null) {
+            compiled = PATTERNS.computeIfAbsent(pattern, CompiledPattern::new);
+        }
+        return compiled;
+    }
+
+    private static SimpleDateFormat lenient(String pattern) {
+        return LENIENT_FORMATS.get().computeIfAbsent(pattern, SimpleDateFormat::new);
+    }
+
+    /**
+     * 预编译的格式
+     */
+    private static final class CompiledPattern {
+
+        /**
+         * DateTimeFormatter不支持该格式时为null，只用SimpleDateFormat
+         */
+        private final DateTimeFormatter formatter;
+
+        /**
+         * 定长格式，每个字符为字段字母或分隔符；不是定长格式时为null
+         */
+        private final char[] layout;
+
+        /**
+         * 格式是否包含时间字段
+         */
+        private final boolean hasTime;
+
+        /**
+         * 格式是否包含时区/偏移字段（z、Z、X、x、O、V）
+         */
+        private final boolean zoned;
+
+        private CompiledPattern(String pattern) {
+            this.formatter = ofPattern(pattern);
+            this.layout = isFixed(pattern) ? pattern.toCharArray() : null;
+            this.hasTime = contains(pattern, "HhKkms");
+            this.zoned = contains(pattern, "zZXxOV");
+        }
+
+        /**
+         * 按位置解析定长格式
+         *
+         * @return 结果，不是定长格式或不匹配时为null
+         */
+        private LocalDateTime parseFixed(String value) {
+            if (layout == null || value.length() != layout.length) {
+                return null;
+            }
+            int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0;
+            boolean hasMonth = false, hasDay = false;
+            for (int i = 0; i < layout.length; i++) {
+                char letter = layout[i];
+                char ch = value.charAt(i);
+                if (!Character.isLetter(letter)) {
+                    if (ch != letter) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (ch < '0' || ch > '9') {
+                    return null;
+                }
+                int digit = ch - '0';
+                switch (letter) {
+                    case 'y':
+                        year = year * 10 + digit;
+                        break;
+                    case 'M':
+                        month = month * 10 + digit;
+                        hasMonth = true;
+                        break;
+                    case 'd':
+                        day = day * 10 + digit;
+                        hasDay = true;
+                        break;
+                    case 'H':
+                        hour = hour * 10 + digit;
+                        break;
+                    case 'm':
+                        minute = minute * 10 + digit;
+                        break;
+                    default:
+                        second = second * 10 + digit;
+                        break;
+                }
+            }
+            try {
+                return LocalDateTime.of(year, hasMonth ? month : 1, hasDay ? day : 1, hour, minute, second);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+        private static DateTimeFormatter ofPattern(String pattern) {
+            try {
+                return DateTimeFormatter.ofPattern(pattern);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         * 格式中引号外是否出现任一字段字母
+         */
+        private static boolean contains(String pattern, String letters) {
+            boolean quoted = false;
+            for (int i = 0; i < pattern.length(); i++) {
+                char ch = pattern.charAt(i);
+                if (ch == '\'') {
+                    quoted = !quoted;
+                } else if (!quoted && letters.indexOf(ch) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 只含yyyy、MM、dd、HH、mm、ss及非字母分隔符，且包含yyyy
+         */
+        private static boolean isFixed(String pattern) {
+            boolean hasYear = false;
+            int i = 0;
+            while (i < pattern.length()) {
+                char ch = pattern.charAt(i);
+                if (ch == '\'') {
+                    return false;
+                }
+                if (!Character.isLetter(ch)) {
+                    i++;
+                    continue;
+                }
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) == ch) {
+                    end++;
+                }
+                int width = end - i;
+                if (ch == 'y' && width == 4) {
+                    hasYear = true;
+                } else if ("MdHms".indexOf(ch) < 0 || width != 2) {
+                    return false;
+                }
+                i = end;
+            }
+            return hasYear;
+        }
+    }
+}
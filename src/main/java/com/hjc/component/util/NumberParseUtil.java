@@ -0,0 +1,190 @@
+package com.hjc.component.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * @author by hjc
+ * @Classname NumberParseUtil
+ * @Description 数字解析，一次扫描同时完成格式校验与转换，规则与PatternUtil中的整数、小数正则一致
+ * @Date 2019/7/9 21:36
+ */
+public class NumberParseUtil {
+
+    /**
+     * 整数最多位数，与PATTERN_INTEGER一致
+     */
+    public static final int MAX_INTEGER_DIGITS = 8;
+
+    /**
+     * 长整数最多位数，18位以内不会溢出
+     */
+    public static final int MAX_LONG_DIGITS = 18;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private NumberParseUtil() {
+    }
+
+    /**
+     * 解析最多8位的非负整数（^[0-9]{1,8}$）
+     *
+     * @param value 单元格值
+     * @return 整数，格式不合法时返回-1
+     */
+    public static int parseInteger(String value) {
+        int length = value.length();
+        if (length == 0 || length > MAX_INTEGER_DIGITS) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            result = result * 10 + (ch - '0');
+        }
+        return result;
+    }
+
+    /**
+     * 解析最多18位、可带符号的长整数（^[-+]?[0-9]{1,18}$）
+     *
+     * @param value 单元格值
+     * @return 长整数，格式不合法时返回Long.MIN_VALUE
+     */
+    public static long parseLong(String value) {
+        int length = value.length();
+        int i = 0;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            i++;
+        }
+        if (length == i || length - i > MAX_LONG_DIGITS) {
+            return Long.MIN_VALUE;
+        }
+        long result = 0;
+        for (int j = i; j < length; j++) {
+            char ch = value.charAt(j);
+            if (ch < '0' || ch > '9') {
+                return Long.MIN_VALUE;
+            }
+            result = result * 10 + (ch - '0');
+        }
+        return value.charAt(0) == '-' ? -result : result;
+    }
+
+    /**
+     * 是否为小数（^([-+])?\d+(\.\d+)?$）
+     *
+     * @param value 单元格值
+     */
+    public static boolean isDecimal(String value) {
+        return fractionDigits(value) >= 0;
+    }
+
+    /**
+     * 解析小数并按位数舍入
+     *
+     * @param value    单元格值
+     * @param scale    小数位数，小于0时不舍入
+     * @param rounding 舍入方式
+     * @return 数值，格式不合法时返回NaN
+     */
+    public static double parseDecimal(String value, int scale, RoundingMode rounding) {
+        int length = value.length();
+        int i = 0;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            i++;
+        }
+        boolean negative = i > 0 && value.charAt(0) == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int integerDigits = 0;
+        int fraction = -1;
+        for (; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (fraction >= 0) {
+                    fraction++;
+                } else {
+                    integerDigits++;
+                }
+                if (++digits <= 15) {
+                    mantissa = mantissa * 10 + (ch - '0');
+                }
+            } else if (ch == '.' && fraction < 0 && integerDigits > 0) {
+                fraction = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (integerDigits == 0 || fraction == 0) {
+            return Double.NaN;
+        }
+        fraction = Math.max(fraction, 0);
+        if (digits <= 15 && (scale < 0 || fraction <= scale)) {
+            //有效数字不超过15位时整数部分与10的幂均可精确表示，一次除法即得到正确舍入的结果
+            double result = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+            return negative ? -result : result;
+        }
+        BigDecimal decimal = new BigDecimal(value);
+        if (scale >= 0 && fraction > scale) {
+            decimal = decimal.setScale(scale, rounding);
+        }
+        return decimal.doubleValue();
+    }
+
+    /**
+     * 按位数舍入已有数值，位数不超过scale时原样返回
+     *
+     * @param value    数值
+     * @param scale    小数位数，小于0时不舍入
+     * @param rounding 舍入方式
+     */
+    public static double round(double value, int scale, RoundingMode rounding) {
+        if (scale < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return value;
+        }
+        if (scale < POWERS_OF_TEN.length) {
+            double scaled = value * POWERS_OF_TEN[scale];
+            if (Math.abs(scaled) < 1e15 && scaled == Math.rint(scaled)) {
+                return value;
+            }
+        }
+        return BigDecimal.valueOf(value).setScale(scale, rounding).doubleValue();
+    }
+
+    /**
+     * @return 小数位数，格式不合法时返回-1
+     */
+    private static int fractionDigits(String value) {
+        int length = value.length();
+        int i = 0;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            i++;
+        }
+        int integerDigits = 0;
+        int fraction = -1;
+        for (; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (fraction >= 0) {
+                    fraction++;
+                } else {
+                    integerDigits++;
+                }
+            } else if (ch == '.' && fraction < 0 && integerDigits > 0) {
+                fraction = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (integerDigits == 0 || fraction == 0) {
+            return -1;
+        }
+        return Math.max(fraction, 0);
+    }
+}
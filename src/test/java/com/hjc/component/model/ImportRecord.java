@@ -0,0 +1,38 @@
+package com.hjc.component.model;
+
+import com.hjc.component.annotation.ExcelCell;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * @author by hjc
+ * @Classname ImportRecord
+ * @Description 测试用导入模型
+ * @Date 2019/7/9 21:36
+ */
+@Data
+public class ImportRecord {
+
+    @ExcelCell(title = "ID", order = 0, notNull = true, length = 36)
+    private String id;
+
+    @ExcelCell(title = "数量", order = 1)
+    private Integer count;
+
+    @ExcelCell(title = "金额", order = 2)
+    private Double amount;
+
+    @ExcelCell(title = "时间", order = 3)
+    private Date time;
+
+    @ExcelCell(title = "状态", order = 4, enums = {"启用", "停用"})
+    private String status;
+
+    @ExcelCell(title = "大数", order = 5)
+    private BigDecimal big;
+
+    @ExcelCell(title = "标记", order = 6)
+    private Boolean flag;
+}
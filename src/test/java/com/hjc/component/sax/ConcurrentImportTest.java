@@ -0,0 +1,150 @@
+package com.hjc.component.sax;
+
+import com.hjc.component.binding.ExcelInvalidRow;
+import com.hjc.component.model.ImportRecord;
+import com.hjc.component.util.ExcelConverter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author by hjc
+ * @Classname ConcurrentImportTest
+ * @Description 共享的单例bean上并发导入，结果应与串行导入一致
+ * @Date 2019/7/9 21:36
+ */
+public class ConcurrentImportTest {
+
+    private static final int THREADS = 32;
+
+    private static final int SHEETS = 3;
+
+    private static final int ROWS = 1000;
+
+    private static final List<Class> CLASSES = Arrays.asList(ImportRecord.class, ImportRecord.class, ImportRecord.class);
+
+    private static AnnotationConfigApplicationContext context;
+
+    private static byte[] workbook;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        context = new AnnotationConfigApplicationContext("com.hjc.component");
+        workbook = createWorkbook();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        context.close();
+    }
+
+    @Test
+    public void concurrentSaxImportsMatchSerialRun() throws Exception {
+        ExcelXlsxReader reader = context.getBean(ExcelXlsxReader.class);
+        Callable<String> task = () -> {
+            ExcelXlsxReader.ExcelConvertResult result = reader.process(new ByteArrayInputStream(workbook), CLASSES);
+            return snapshot(result.getRecords(), result.getInvalidRows());
+        };
+        assertConcurrentMatchesSerial(task);
+    }
+
+    @Test
+    public void concurrentConvertImportsMatchSerialRun() throws Exception {
+        ExcelConverter converter = context.getBean(ExcelConverter.class);
+        Callable<String> task = () -> {
+            ExcelConverter.ExcelConvertResult result = converter.convert("import.xlsx", new ByteArrayInputStream(workbook), CLASSES);
+            return snapshot(result.getRecords(), result.getInvalidRows());
+        };
+        assertConcurrentMatchesSerial(task);
+    }
+
+    private static void assertConcurrentMatchesSerial(Callable<String> task) throws Exception {
+        String expected = task.call();
+        assertTrue("串行导入应同时有合法行与错误行", expected.contains("ImportRecord(") && expected.contains("【ID】"));
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 结果转为与顺序、实例无关的文本：按类名排序，记录按toString，错误行按行号与错误信息
+     */
+    @SuppressWarnings("unchecked")
+    private static String snapshot(Map records, Map invalidRows) {
+        StringBuilder buff = new StringBuilder();
+        new TreeMap<String, List<Object>>(records).forEach((type, list) -> {
+            buff.append(type).append(" records=").append(list.size()).append('\n');
+            list.forEach(record -> buff.append(record).append('\n'));
+        });
+        new TreeMap<String, List<ExcelInvalidRow>>(invalidRows).forEach((type, list) -> {
+            buff.append(type).append(" invalid=").append(list.size()).append('\n');
+            list.forEach(row -> buff.append(row.getRowNum()).append(' ').append(row.getFormatErrorMsg()).append('\n'));
+        });
+        return buff.toString();
+    }
+
+    private static byte[] createWorkbook() throws Exception {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        for (int s = 0; s < SHEETS; s++) {
+            Sheet sheet = wb.createSheet("sheet" + s);
+            Row title = sheet.createRow(0);
+            String[] titles = {"ID", "数量", "金额", "时间", "状态", "大数", "标记"};
+            for (int c = 0; c < titles.length; c++) {
+                title.createCell(c).setCellValue(titles[c]);
+            }
+            for (int r = 1; r <= ROWS; r++) {
+                Row row = sheet.createRow(r);
+                if (r % 7 != 0) {
+                    row.createCell(0).setCellValue("s" + s + "-" + r);
+                }
+                if (r % 11 == 0) {
+                    row.createCell(1).setCellValue("abc");
+                } else {
+                    row.createCell(1).setCellValue(r);
+                }
+                row.createCell(2).setCellValue(r * 1.25);
+                row.createCell(3).setCellValue(String.format("2019-07-%02d 21:36:%02d", r % 28 + 1, r % 60));
+                row.createCell(4).setCellValue(r % 2 == 0 ? "启用" : "停用");
+                row.createCell(5).setCellValue(String.valueOf(r * 1000003L) + ".5");
+                row.createCell(6).setCellValue(r % 3 == 0);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        wb.write(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,53 @@
+package com.hjc.component.util;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author by hjc
+ * @Classname DateFormatUtilTest
+ * @Description 含时区/偏移字段的格式：格式化按系统时区输出，解析按字符串中的偏移换算
+ * @Date 2019/7/9 21:36
+ */
+public class DateFormatUtilTest {
+
+    private static final Instant INSTANT = Instant.parse("2019-07-09T21:36:00Z");
+
+    @Test
+    public void formatsZonedPatterns() {
+        Date date = Date.from(INSTANT);
+        for (String pattern : new String[]{"yyyy-MM-dd HH:mm:ss Z", "yyyy-MM-dd HH:mm:ss XXX", "yyyy-MM-dd HH:mm:ss z"}) {
+            assertEquals(pattern, new SimpleDateFormat(pattern).format(date), DateFormatUtil.format(date, pattern));
+        }
+        ZonedDateTime zoned = INSTANT.atZone(ZoneId.systemDefault());
+        for (String pattern : new String[]{"yyyy-MM-dd HH:mm:ss xxx", "yyyy-MM-dd HH:mm:ss O", "yyyy-MM-dd HH:mm:ss VV"}) {
+            String expected = DateTimeFormatter.ofPattern(pattern).format(zoned);
+            assertEquals(pattern, expected, DateFormatUtil.format(date, pattern));
+            assertEquals(pattern, expected, DateFormatUtil.format(zoned.toLocalDateTime(), pattern));
+        }
+    }
+
+    @Test
+    public void parsesOffsetIntoSystemZone() throws Exception {
+        assertEquals(Date.from(INSTANT), DateFormatUtil.parseDate("2019-07-09 21:36:00 +0000", "yyyy-MM-dd HH:mm:ss Z"));
+        assertEquals(Date.from(INSTANT), DateFormatUtil.parseDate("2019-07-10 05:36:00 +08:00", "yyyy-MM-dd HH:mm:ss XXX"));
+        assertEquals(LocalDateTime.ofInstant(INSTANT, ZoneId.systemDefault()),
+                DateFormatUtil.parseLocalDateTime("2019-07-09 21:36:00 UTC", "yyyy-MM-dd HH:mm:ss z"));
+    }
+
+    @Test
+    public void roundTripsZonedPattern() throws Exception {
+        String pattern = "yyyy-MM-dd HH:mm:ss Z";
+        Date date = Date.from(INSTANT);
+        assertEquals(date, DateFormatUtil.parseDate(DateFormatUtil.format(date, pattern), pattern));
+    }
+}
@@ -0,0 +1,204 @@
+package com.hjc.component.benchmark;
+
+import com.hjc.component.annotation.ExcelCell;
+import com.hjc.component.binding.ExcelClassMapping;
+import com.hjc.component.binding.ExcelColumnMapping;
+import com.hjc.component.binding.RecordFactory;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author by hjc
+ * @Classname BindingBenchmark
+ * @Description 30列模型每行的绑定开销：生成的构造器/读写器与原先的newInstance + Field.set/Field.get对比
+ * @Date 2019/7/9 21:36
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+
+    private List<ExcelColumnMapping> columns;
+
+    private RecordFactory<Record30> factory;
+
+    private Field[] fields;
+
+    /**
+     * 与各列类型一致的已转换值，即处理器的输出
+     */
+    private Object[] values;
+
+    private Record30 record;
+
+    @Setup
+    public void setUp() throws Exception {
+        ExcelClassMapping mapping = ExcelClassMapping.of(Record30.class);
+        columns = mapping.getColumns();
+        factory = mapping.getFactory();
+        fields = new Field[columns.size()];
+        values = new Object[columns.size()];
+        for (int i = 0; i < fields.length; i++) {
+            ExcelColumnMapping column = columns.get(i);
+            fields[i] = Record30.class.getDeclaredField(column.getName());
+            fields[i].setAccessible(true);
+            values[i] = sample(column.getType(), i);
+        }
+        record = reflectiveImport();
+    }
+
+    @Benchmark
+    public Record30 generatedImport() {
+        Object state = factory.newState();
+        for (int i = 0; i < values.length; i++) {
+            factory.set(state, columns.get(i), values[i]);
+        }
+        return factory.build(state);
+    }
+
+    /**
+     * 基本类型列走不装箱的setLong/setDouble，与处理器的write一致
+     */
+    @Benchmark
+    public Record30 generatedImportUnboxed() {
+        Object state = factory.newState();
+        for (int i = 0; i < values.length; i++) {
+            ExcelColumnMapping column = columns.get(i);
+            if (column.getType() == long.class) {
+                factory.setLong(state, column, (Long) values[i]);
+            } else if (column.getType() == double.class) {
+                factory.setDouble(state, column, (Double) values[i]);
+            } else {
+                factory.set(state, column, values[i]);
+            }
+        }
+        return factory.build(state);
+    }
+
+    @Benchmark
+    public Record30 reflectiveImport() throws Exception {
+        Record30 instance = Record30.class.newInstance();
+        for (int i = 0; i < values.length; i++) {
+            fields[i].set(instance, values[i]);
+        }
+        return instance;
+    }
+
+    @Benchmark
+    public void generatedExport(Blackhole blackhole) {
+        for (int i = 0; i < columns.size(); i++) {
+            blackhole.consume(columns.get(i).getValue(record));
+        }
+    }
+
+    @Benchmark
+    public void reflectiveExport(Blackhole blackhole) throws Exception {
+        for (Field field : fields) {
+            blackhole.consume(field.get(record));
+        }
+    }
+
+    private static Object sample(Class<?> type, int i) {
+        if (type == String.class) {
+            return "value-" + i;
+        }
+        if (type == Integer.class) {
+            return 1000 + i;
+        }
+        if (type == long.class) {
+            return 10_000_000_000L + i;
+        }
+        if (type == double.class) {
+            return i + 0.25;
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal("12345.6789");
+        }
+        return i % 2 == 0;
+    }
+
+    /**
+     * 30列模型：字符串、包装类型、基本类型混合
+     */
+    @Data
+    public static class Record30 {
+        @ExcelCell(title = "c0", order = 0)
+        private String c0;
+        @ExcelCell(title = "c1", order = 1)
+        private String c1;
+        @ExcelCell(title = "c2", order = 2)
+        private String c2;
+        @ExcelCell(title = "c3", order = 3)
+        private String c3;
+        @ExcelCell(title = "c4", order = 4)
+        private String c4;
+        @ExcelCell(title = "c5", order = 5)
+        private String c5;
+        @ExcelCell(title = "c6", order = 6)
+        private String c6;
+        @ExcelCell(title = "c7", order = 7)
+        private String c7;
+        @ExcelCell(title = "c8", order = 8)
+        private String c8;
+        @ExcelCell(title = "c9", order = 9)
+        private String c9;
+        @ExcelCell(title = "c10", order = 10)
+        private Integer c10;
+        @ExcelCell(title = "c11", order = 11)
+        private Integer c11;
+        @ExcelCell(title = "c12", order = 12)
+        private Integer c12;
+        @ExcelCell(title = "c13", order = 13)
+        private Integer c13;
+        @ExcelCell(title = "c14", order = 14)
+        private Integer c14;
+        @ExcelCell(title = "c15", order = 15)
+        private long c15;
+        @ExcelCell(title = "c16", order = 16)
+        private long c16;
+        @ExcelCell(title = "c17", order = 17)
+        private long c17;
+        @ExcelCell(title = "c18", order = 18)
+        private long c18;
+        @ExcelCell(title = "c19", order = 19)
+        private long c19;
+        @ExcelCell(title = "c20", order = 20)
+        private double c20;
+        @ExcelCell(title = "c21", order = 21)
+        private double c21;
+        @ExcelCell(title = "c22", order = 22)
+        private double c22;
+        @ExcelCell(title = "c23", order = 23)
+        private double c23;
+        @ExcelCell(title = "c24", order = 24)
+        private double c24;
+        @ExcelCell(title = "c25", order = 25)
+        private BigDecimal c25;
+        @ExcelCell(title = "c26", order = 26)
+        private BigDecimal c26;
+        @ExcelCell(title = "c27", order = 27)
+        private BigDecimal c27;
+        @ExcelCell(title = "c28", order = 28)
+        private Boolean c28;
+        @ExcelCell(title = "c29", order = 29)
+        private Boolean c29;
+    }
+}
@@ -0,0 +1,191 @@
+package com.hjc.component.benchmark;
+
+import com.hjc.component.service.BaseDataTypeHandleCommand;
+import com.hjc.component.service.impl.BigDecimalHandleCommand;
+import com.hjc.component.service.impl.DoubleHandleCommand;
+import com.hjc.component.service.impl.FloatHandleCommand;
+import com.hjc.component.service.impl.IntegerHandleCommand;
+import com.hjc.component.util.PatternUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author by hjc
+ * @Classname NumberParseBenchmark
+ * @Description 每次调用解析1000万个单元格文本：单遍校验转换的处理器与原先“正则校验两次再解析”的实现对比，
+ * 约1/64的值不合法，走错误信息分支
+ * @Date 2019/7/9 21:36
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberParseBenchmark {
+
+    private static final int VALUES = 10_000_000;
+
+    /**
+     * 文本池大小，2的幂，循环取用
+     */
+    private static final int POOL = 4096;
+
+    private static final String TITLE = "数值";
+
+    private final String[] integers = new String[POOL];
+
+    private final String[] decimals = new String[POOL];
+
+    private final Map<String, String> errMsg = new HashMap<>();
+
+    private final BaseDataTypeHandleCommand integerHandler = new IntegerHandleCommand();
+
+    private final BaseDataTypeHandleCommand floatHandler = new FloatHandleCommand();
+
+    private final BaseDataTypeHandleCommand doubleHandler = new DoubleHandleCommand();
+
+    private final BaseDataTypeHandleCommand bigDecimalHandler = new BigDecimalHandleCommand();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(20190709);
+        for (int i = 0; i < POOL; i++) {
+            boolean invalid = i % 64 == 63;
+            integers[i] = invalid ? "12a4" : String.valueOf(random.nextInt(100_000_000));
+            decimals[i] = invalid ? "1.2.3" : random.nextInt(1_000_000) + "." + (100_000 + random.nextInt(900_000));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void integerHandler(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(integerHandler.process(TITLE, integers[i & (POOL - 1)], errMsg, null));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void integerRegex(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(regexInteger(TITLE, integers[i & (POOL - 1)], errMsg));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void floatHandler(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(floatHandler.process(TITLE, decimals[i & (POOL - 1)], errMsg, null));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void floatRegex(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(regexFloat(TITLE, decimals[i & (POOL - 1)], errMsg));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void doubleHandler(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(doubleHandler.process(TITLE, decimals[i & (POOL - 1)], errMsg, null));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void doubleRegex(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(regexDouble(TITLE, decimals[i & (POOL - 1)], errMsg));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void bigDecimalHandler(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(bigDecimalHandler.process(TITLE, decimals[i & (POOL - 1)], errMsg, null));
+            errMsg.clear();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void bigDecimalRegex(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) {
+            blackhole.consume(regexBigDecimal(TITLE, decimals[i & (POOL - 1)], errMsg));
+            errMsg.clear();
+        }
+    }
+
+    /*
+     * 以下为改造前各处理器的实现，保留作对照
+     */
+
+    private static Object regexInteger(String title, String value, Map<String, String> errMsg) {
+        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_INTEGER.matcher(value).matches()) {
+            return Integer.parseInt(value);
+        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_INTEGER.matcher(value).matches()) {
+            errMsg.put(title, "请输入整数");
+        }
+        return null;
+    }
+
+    private static Object regexFloat(String title, String value, Map<String, String> errMsg) {
+        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+            return Float.parseFloat(value);
+        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+            errMsg.put(title, "请输入小数");
+        }
+        return null;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Object regexDouble(String title, String value, Map<String, String> errMsg) {
+        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+            Double number = Double.parseDouble(value);
+            BigDecimal bigDecimal = new BigDecimal(number);
+            return bigDecimal.setScale(6, BigDecimal.ROUND_DOWN).doubleValue();
+        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+            errMsg.put(title, "请输入小数");
+        }
+        return null;
+    }
+
+    private static Object regexBigDecimal(String title, String value, Map<String, String> errMsg) {
+        if (StringUtils.isNotBlank(value) && PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+            return new BigDecimal(value);
+        } else if (StringUtils.isNotBlank(value) && !PatternUtil.PATTERN_DECIMAL.matcher(value).matches()) {
+            errMsg.put(title, "请输入小数");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.hjc.component.benchmark;
+
+import com.hjc.component.annotation.ExcelCell;
+import com.hjc.component.export.ExcelExportOptions;
+import com.hjc.component.export.ExcelSheetSource;
+import com.hjc.component.export.XlsxStreamWriter;
+import com.hjc.component.util.ExcelConverter;
+import lombok.Data;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author by hjc
+ * @Classname XlsxWriterBenchmark
+ * @Description 导出rows行×20列：XlsxStreamWriter与SXSSF路径（exportBigSheet + write）对比，输出丢弃只计字节数；
+ * 目标规模可用 -p rows=5000000 运行
+ * @Date 2019/7/9 21:36
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XlsxWriterBenchmark {
+
+    /**
+     * 不同实例数，行按下标循环取用，避免数据准备占用内存
+     */
+    private static final int POOL = 1024;
+
+    @Param({"200000"})
+    private int rows;
+
+    private AnnotationConfigApplicationContext context;
+
+    private ExcelConverter converter;
+
+    private List<Row20> records;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext("com.hjc.component");
+        converter = context.getBean(ExcelConverter.class);
+        Row20[] pool = new Row20[POOL];
+        for (int i = 0; i < POOL; i++) {
+            pool[i] = Row20.sample(i);
+        }
+        records = new AbstractList<Row20>() {
+            @Override
+            public Row20 get(int index) {
+                return pool[index & (POOL - 1)];
+            }
+
+            @Override
+            public int size() {
+                return rows;
+            }
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long streamWriter() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(out, new ExcelExportOptions())) {
+            writer.writeSheet(ExcelSheetSource.of(Row20.class, "data", records));
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    public long sxssf() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        SXSSFWorkbook wb = new SXSSFWorkbook(null, SXSSFWorkbook.DEFAULT_WINDOW_SIZE, false);
+        try {
+            converter.exportBigSheet(records, wb, 0, Row20.class, "data");
+            wb.write(out);
+        } finally {
+            wb.dispose();
+        }
+        return out.count;
+    }
+
+    /**
+     * 丢弃输出，只统计字节数
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * 20列模型
+     */
+    @Data
+    public static class Row20 {
+        @ExcelCell(title = "编号", order = 0)
+        private String code;
+        @ExcelCell(title = "名称", order = 1)
+        private String name;
+        @ExcelCell(title = "类别", order = 2)
+        private String category;
+        @ExcelCell(title = "地址", order = 3)
+        private String address;
+        @ExcelCell(title = "联系人", order = 4)
+        private String contact;
+        @ExcelCell(title = "电话", order = 5)
+        private String phone;
+        @ExcelCell(title = "备注", order = 6)
+        private String remark;
+        @ExcelCell(title = "状态", order = 7)
+        private String status;
+        @ExcelCell(title = "数量", order = 8)
+        private Integer count;
+        @ExcelCell(title = "库存", order = 9)
+        private Integer stock;
+        @ExcelCell(title = "等级", order = 10)
+        private Integer level;
+        @ExcelCell(title = "排序", order = 11)
+        private Integer sort;
+        @ExcelCell(title = "流水号", order = 12)
+        private Long serial;
+        @ExcelCell(title = "外部编号", order = 13)
+        private Long externalId;
+        @ExcelCell(title = "单价", order = 14, scale = 2)
+        private Double price;
+        @ExcelCell(title = "经度", order = 15)
+        private Double longitude;
+        @ExcelCell(title = "纬度", order = 16)
+        private Double latitude;
+        @ExcelCell(title = "创建时间", order = 17)
+        private Date createTime;
+        @ExcelCell(title = "更新时间", order = 18)
+        private Date updateTime;
+        @ExcelCell(title = "金额", order = 19)
+        private BigDecimal amount;
+
+        static Row20 sample(int i) {
+            Row20 row = new Row20();
+            row.code = String.format("NO%08d", i);
+            row.name = "设备" + i;
+            row.category = "类别" + i % 16;
+            row.address = "杭州市西湖区文三路" + i + "号";
+            row.contact = "联系人" + i % 100;
+            row.phone = "1380000" + (1000 + i);
+            row.remark = i % 3 == 0 ? null : "备注" + i;
+            row.status = i % 2 == 0 ? "启用" : "停用";
+            row.count = i;
+            row.stock = i * 7;
+            row.level = i % 5;
+            row.sort = POOL - i;
+            row.serial = 10_000_000_000L + i;
+            row.externalId = 20_000_000_000L + i;
+            row.price = i + 0.99;
+            row.longitude = 120.0 + i / 10000.0;
+            row.latitude = 30.0 + i / 10000.0;
+            row.createTime = new Date(1562679360000L + i * 1000L);
+            row.updateTime = new Date(1562679360000L + i * 2000L);
+            row.amount = new BigDecimal(i).movePointLeft(2);
+            return row;
+        }
+    }
+}